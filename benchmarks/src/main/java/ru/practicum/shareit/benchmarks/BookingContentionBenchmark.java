@@ -0,0 +1,141 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingExtDto;
+import ru.practicum.shareit.exceptions.BookingConflictException;
+import ru.practicum.shareit.exceptions.StatusAlreadyChangedException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 64 потока одновременно работают с бронированиями небольшого набора предметов
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class BookingContentionBenchmark {
+
+    private static final int RACERS = 64;
+
+    @State(Scope.Benchmark)
+    public static class Slots {
+        BookingService bookingService;
+        LocalDateTime base;
+        final AtomicLong counter = new AtomicLong();
+
+        @Param({"16"})
+        public int hotItems;
+
+        @Setup(Level.Trial)
+        public void setUp(SeededContext context) {
+            bookingService = context.bean(BookingService.class);
+            base = LocalDateTime.now().plusYears(1);
+        }
+    }
+
+    // Пул ожидающих бронирований, пересоздается на каждую итерацию. Подряд идущие RACERS вызовов
+    // получают одно и то же бронирование, так что все 64 потока решают судьбу одной заявки одновременно
+    @State(Scope.Benchmark)
+    public static class Pending {
+        BookingService bookingService;
+        long[] bookingIds;
+        long[] ownerIds;
+        final AtomicLong counter = new AtomicLong();
+        private long round;
+
+        @Param({"16"})
+        public int hotItems;
+
+        // С запасом на итерацию: при исчерпании пула вызовы идут по кругу и только отклоняются
+        @Param({"1000"})
+        public int pending;
+
+        @Setup(Level.Trial)
+        public void setUpTrial(SeededContext context) {
+            bookingService = context.bean(BookingService.class);
+        }
+
+        @Setup(Level.Iteration)
+        public void setUp(SeededContext context) {
+            BookingRepository bookingRepository = context.bean(BookingRepository.class);
+            ItemRepository itemRepository = context.bean(ItemRepository.class);
+            UserRepository userRepository = context.bean(UserRepository.class);
+            LocalDateTime base = LocalDateTime.now().plusYears(10 + round++);
+            List<Booking> bookings = new ArrayList<>();
+            ownerIds = new long[pending];
+            for (int i = 0; i < pending; i++) {
+                long itemId = context.itemId(i % hotItems);
+                long ownerId = context.ownerOf(itemId);
+                long bookerId = ownerId % context.users + 1;
+                LocalDateTime start = base.plusHours(2L * i);
+                bookings.add(new Booking(0, start, start.plusHours(1), itemRepository.getReferenceById(itemId),
+                        userRepository.getReferenceById(bookerId), Status.WAITING, null));
+                ownerIds[i] = ownerId;
+            }
+            bookingIds = bookingRepository.saveAll(bookings).stream().mapToLong(Booking::getId).toArray();
+            counter.set(0);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long won;
+        public long lostRace;
+        public long alreadyDecided;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            won = 0;
+            lostRace = 0;
+            alreadyDecided = 0;
+        }
+    }
+
+    // Создание и подтверждение в непересекающихся интервалах: конкуренция за блокировку предмета
+    @Benchmark
+    public BookingExtDto createAndApprove(SeededContext context, Slots slots) {
+        long n = slots.counter.getAndIncrement();
+        long itemId = context.itemId((int) (n % slots.hotItems));
+        long ownerId = context.ownerOf(itemId);
+        long bookerId = ownerId % context.users + 1;
+        // У каждого вызова свой непересекающийся интервал
+        LocalDateTime start = slots.base.plusHours(2 * n);
+        return context.inRequest(() -> {
+            BookingDto booking = slots.bookingService.create(bookerId,
+                    new BookingDto(0, start, start.plusHours(1), itemId, bookerId, null));
+            return slots.bookingService.changeStatus(ownerId, booking.getId(), true);
+        });
+    }
+
+    // Гонка подтверждения и отклонения одной заявки: выигрывает один поток, остальные получают
+    // конфликт условного обновления или уже принятое решение
+    @Benchmark
+    public void raceForDecision(SeededContext context, Pending pending, Outcomes outcomes) {
+        long n = pending.counter.getAndIncrement();
+        int slot = (int) (n / RACERS % pending.bookingIds.length);
+        long bookingId = pending.bookingIds[slot];
+        long ownerId = pending.ownerIds[slot];
+        boolean approve = n % 2 == 0;
+        try {
+            context.inRequest(() -> pending.bookingService.changeStatus(ownerId, bookingId, approve));
+            outcomes.won++;
+        } catch (BookingConflictException e) {
+            outcomes.lostRace++;
+        } catch (StatusAlreadyChangedException e) {
+            outcomes.alreadyDecided++;
+        }
+    }
+}
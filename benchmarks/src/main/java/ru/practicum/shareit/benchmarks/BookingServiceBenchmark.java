@@ -0,0 +1,37 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingExtDto;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Services {
+        BookingService bookingService;
+
+        @Setup(Level.Trial)
+        public void setUp(SeededContext context) {
+            bookingService = context.bean(BookingService.class);
+        }
+    }
+
+    @Param({"ALL", "FUTURE", "WAITING"})
+    public String state;
+
+    @Benchmark
+    public List<BookingExtDto> getForOwner(SeededContext context, Services services) {
+        long userId = context.userId(ThreadLocalRandom.current().nextInt(context.users));
+        return context.inRequest(() -> services.bookingService.getForOwner(userId, state, 0, 20));
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.requests.ItemRequestService;
+import ru.practicum.shareit.requests.dto.ItemRequestExtDto;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemRequestServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Services {
+        ItemRequestService itemRequestService;
+
+        @Setup(Level.Trial)
+        public void setUp(SeededContext context) {
+            itemRequestService = context.bean(ItemRequestService.class);
+        }
+    }
+
+    @Benchmark
+    public Collection<ItemRequestExtDto> getAll(SeededContext context, Services services) {
+        long userId = context.userId(ThreadLocalRandom.current().nextInt(context.users));
+        return context.inRequest(() -> services.itemRequestService.getAll(userId, 0, 20));
+    }
+}
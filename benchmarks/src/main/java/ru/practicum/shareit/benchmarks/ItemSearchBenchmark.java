@@ -0,0 +1,144 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Поиск с опечаткой на больших каталогах: SampleTime дает распределение задержек, в том числе p99.
+// Индекс в памяти проверяется на H2, pg_trgm - на настоящем PostgreSQL:
+// -p backend=postgres -p jdbcUrl=jdbc:postgresql://localhost:5432/shareit
+// В этой базе пересоздается схема shareit_benchmarks, остальные данные не трогаются.
+// Для 1 000 000 предметов индексу в памяти нужно около 3 ГБ кучи: -jvmArgsAppend -Xmx4g
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ItemSearchBenchmark {
+
+    private static final String SCHEMA = "shareit_benchmarks";
+    private static final int BATCH_SIZE = 10_000;
+    private static final int ITEMS_PER_OWNER = 10;
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        ConfigurableApplicationContext context;
+        ItemService itemService;
+
+        @Param({"10000", "100000", "1000000"})
+        public int items;
+
+        @Param({"memory"})
+        public String backend;
+
+        @Param({""})
+        public String jdbcUrl;
+
+        @Param({"test"})
+        public String username;
+
+        @Param({"test"})
+        public String password;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            SpringApplicationBuilder builder = new SpringApplicationBuilder(ShareItServer.class)
+                    .web(WebApplicationType.NONE);
+            if ("memory".equals(backend)) {
+                builder.profiles("test")
+                        .properties("spring.datasource.url=jdbc:h2:mem:search-benchmarks;DB_CLOSE_DELAY=-1");
+            } else if ("postgres".equals(backend)) {
+                if (jdbcUrl.isEmpty()) {
+                    throw new IllegalStateException("Для backend=postgres нужен адрес базы: -p jdbcUrl=...");
+                }
+                recreateSchema();
+                builder.properties(
+                        "spring.datasource.url=" + jdbcUrl + (jdbcUrl.contains("?") ? "&" : "?")
+                                + "currentSchema=" + SCHEMA + ",public",
+                        "spring.datasource.username=" + username,
+                        "spring.datasource.password=" + password,
+                        "shareit.search.backend=postgres",
+                        "shareit.booking.expiry.enabled=false");
+            } else {
+                throw new IllegalStateException("Неизвестный backend: " + backend);
+            }
+            context = builder.properties("logging.level.root=WARN").run();
+            itemService = context.getBean(ItemService.class);
+            seed();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+
+        private void recreateSchema() throws SQLException {
+            try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("drop schema if exists " + SCHEMA + " cascade");
+                statement.execute("create schema " + SCHEMA);
+            }
+        }
+
+        // Напрямую через JDBC и с явными id: через JPA миллион вставок занял бы большую часть прогона
+        private void seed() {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            ItemSearchIndex searchIndex = context.getBean(ItemSearchIndex.class);
+            Random random = new Random(42);
+            int owners = (items + ITEMS_PER_OWNER - 1) / ITEMS_PER_OWNER;
+
+            List<Object[]> users = new ArrayList<>();
+            for (int i = 1; i <= owners; i++) {
+                users.add(new Object[]{i, "user" + i, "user" + i + "@shareit.ru"});
+                if (users.size() == BATCH_SIZE || i == owners) {
+                    jdbc.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+                    users.clear();
+                }
+            }
+
+            List<Object[]> rows = new ArrayList<>();
+            List<Item> batch = new ArrayList<>();
+            for (int i = 1; i <= items; i++) {
+                String name = SeededContext.WORDS[random.nextInt(SeededContext.WORDS.length)] + " " + i;
+                String description = SeededContext.description(random);
+                rows.add(new Object[]{i, name, description, true, (i - 1) % owners + 1});
+                batch.add(new Item(i, name, description, true, null, null, 0L));
+                if (rows.size() == BATCH_SIZE || i == items) {
+                    jdbc.batchUpdate("insert into items (id, name, description, available, owner_id) "
+                            + "values (?, ?, ?, ?, ?)", rows);
+                    batch.forEach(searchIndex::index);
+                    rows.clear();
+                    batch.clear();
+                }
+            }
+            if ("postgres".equals(backend)) {
+                jdbc.execute("analyze items");
+            }
+        }
+    }
+
+    // Опечатка в запросе: поиск идет по похожим триграммам
+    @Benchmark
+    public Collection<ItemDto> fuzzySearch(Catalog catalog) {
+        String word = SeededContext.WORDS[ThreadLocalRandom.current().nextInt(SeededContext.WORDS.length)];
+        return catalog.itemService.search(word.substring(1), "fuzzy", 0, 20);
+    }
+}
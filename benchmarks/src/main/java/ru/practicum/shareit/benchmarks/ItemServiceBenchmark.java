@@ -0,0 +1,40 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemExtDto;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Services {
+        ItemService itemService;
+
+        @Setup(Level.Trial)
+        public void setUp(SeededContext context) {
+            itemService = context.bean(ItemService.class);
+        }
+    }
+
+    @Benchmark
+    public Collection<ItemExtDto> getAllForUser(SeededContext context, Services services) {
+        long userId = context.userId(ThreadLocalRandom.current().nextInt(context.users));
+        return context.inRequest(() -> services.itemService.getAllForUser(userId, 0, 20));
+    }
+
+    @Benchmark
+    public Collection<ItemDto> search(SeededContext context, Services services) {
+        String word = SeededContext.WORDS[ThreadLocalRandom.current().nextInt(SeededContext.WORDS.length)];
+        return context.inRequest(() -> services.itemService.search(word, "text", 0, 20));
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingExtDto;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemExtDto;
+import ru.practicum.shareit.requests.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+
+    private Item item;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        User owner = new User(1, "owner", "owner@shareit.ru", 0L);
+        User booker = new User(2, "booker", "booker@shareit.ru", 0L);
+        ItemRequest request = new ItemRequest(1, "Нужна дрель", booker, LocalDateTime.now(), 0L);
+        item = new Item(1, "Дрель", "Ударная дрель", true, owner, request, 0L);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        booking = new Booking(1, start, start.plusDays(1), item, booker, Status.APPROVED, 0L);
+    }
+
+    @Benchmark
+    public BookingExtDto toBookingExtDto() {
+        return BookingMapper.toBookingExtDto(booking);
+    }
+
+    @Benchmark
+    public ItemDto toItemDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public ItemExtDto toItemExtDto() {
+        return ItemMapper.toItemExtDto(item);
+    }
+}
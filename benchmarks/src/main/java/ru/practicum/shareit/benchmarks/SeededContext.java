@@ -0,0 +1,158 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.requests.ItemRequest;
+import ru.practicum.shareit.requests.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+// Контекст сервера на встроенной H2, заполненный данными заданного объема
+@State(Scope.Benchmark)
+public class SeededContext {
+
+    static final String[] WORDS = {"дрель", "щётка", "отвертка", "пила", "лестница", "палатка", "велосипед",
+        "самокат", "проектор", "гитара", "перфоратор", "шуруповерт", "рюкзак", "спальник", "удочка", "лодка",
+        "мангал", "коляска", "стремянка", "фотоаппарат"};
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"100"})
+    public int users;
+
+    @Param({"10"})
+    public int itemsPerUser;
+
+    @Param({"5"})
+    public int bookingsPerItem;
+
+    @Param({"5"})
+    public int requestsPerUser;
+
+    public ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    // Как OpenEntityManagerInView в веб-запросе: ленивые связи читаются и после выхода из сервиса
+    public <T> T inRequest(Supplier<T> call) {
+        EntityManagerFactory emf = bean(EntityManagerFactory.class);
+        EntityManager em = emf.createEntityManager();
+        TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(em));
+        try {
+            return call.get();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(emf);
+            EntityManagerFactoryUtils.closeEntityManager(em);
+        }
+    }
+
+    public long userId(int i) {
+        return i % users + 1;
+    }
+
+    public long itemId(int i) {
+        return i % ((long) users * itemsPerUser) + 1;
+    }
+
+    // Предметы раздаются пользователям по кругу, поэтому владелец предмета n - пользователь (n - 1) % users + 1
+    public long ownerOf(long itemId) {
+        return (itemId - 1) % users + 1;
+    }
+
+    private void seed() {
+        UserRepository userRepository = bean(UserRepository.class);
+        ItemRepository itemRepository = bean(ItemRepository.class);
+        BookingRepository bookingRepository = bean(BookingRepository.class);
+        ItemRequestRepository itemRequestRepository = bean(ItemRequestRepository.class);
+        ItemSearchIndex searchIndex = bean(ItemSearchIndex.class);
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<User> savedUsers = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            savedUsers.add(new User(0, "user" + i, "user" + i + "@shareit.ru", null));
+        }
+        savedUsers = userRepository.saveAll(savedUsers);
+
+        List<ItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < users * requestsPerUser; i++) {
+            requests.add(new ItemRequest(0, "Нужна " + WORDS[random.nextInt(WORDS.length)],
+                    savedUsers.get(i % users), now.minusMinutes(i), null));
+        }
+        requests = itemRequestRepository.saveAll(requests);
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < users * itemsPerUser; i++) {
+            ItemRequest request = i % 3 == 0 && !requests.isEmpty() ? requests.get(i % requests.size()) : null;
+            items.add(new Item(0, WORDS[random.nextInt(WORDS.length)] + " " + i,
+                    description(random), true, savedUsers.get(i % users), request, null));
+            if (items.size() == BATCH_SIZE) {
+                itemRepository.saveAll(items).forEach(searchIndex::index);
+                items.clear();
+            }
+        }
+        itemRepository.saveAll(items).forEach(searchIndex::index);
+
+        List<Booking> bookings = new ArrayList<>();
+        for (Item item : itemRepository.findAll()) {
+            User booker = savedUsers.get((int) (item.getOwner().getId() % users));
+            for (int j = 0; j < bookingsPerItem; j++) {
+                LocalDateTime start = now.plusDays(2L * (j - bookingsPerItem / 2));
+                bookings.add(new Booking(0, start, start.plusDays(1), item, booker,
+                        Status.values()[j % 3], null));
+            }
+            if (bookings.size() >= BATCH_SIZE) {
+                bookingRepository.saveAll(bookings);
+                bookings.clear();
+            }
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    static String description(Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 6; i++) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return sb.toString().trim();
+    }
+}
@@ -14,7 +14,9 @@ public enum BookingState {
 	// Отклоненные
 	REJECTED,
 	// Ожидающие подтверждения
-	WAITING;
+	WAITING,
+	// Просроченные: владелец не ответил до начала
+	EXPIRED;
 
 	public static Optional<BookingState> from(String stringState) {
 		for (BookingState state : values()) {
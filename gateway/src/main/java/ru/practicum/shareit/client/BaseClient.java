@@ -1,11 +1,15 @@
 package ru.practicum.shareit.client;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
@@ -13,10 +17,33 @@ import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        HOP_BY_HOP_HEADERS.addAll(Set.of("Connection", "Keep-Alive", "Proxy-Authenticate", "Proxy-Authorization",
+                "TE", "Trailer", "Transfer-Encoding", "Upgrade"));
+    }
+
     protected final RestTemplate rest;
+    private final boolean passthrough;
+    @Nullable
+    private final ResponseCache responseCache;
+    @Nullable
+    private final RequestCoalescer coalescer;
 
     public BaseClient(RestTemplate rest) {
         this.rest = rest;
+        this.passthrough = false;
+        this.responseCache = null;
+        this.coalescer = null;
+    }
+
+    public BaseClient(RestTemplate rest, ServerClientProperties properties, ResponseCache responseCache,
+                      RequestCoalescer coalescer) {
+        this.rest = rest;
+        this.passthrough = properties.isPassthrough();
+        this.responseCache = properties.getCache().isEnabled() ? responseCache : null;
+        this.coalescer = properties.isCoalescing() ? coalescer : null;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -84,7 +111,53 @@ public class BaseClient {
     }
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        if (responseCache == null && coalescer == null) {
+            return send(method, path, parameters, new HttpEntity<>(body, defaultHeaders(userId)));
+        }
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        if (method != HttpMethod.GET) {
+            ResponseEntity<Object> response = send(method, path, parameters, new HttpEntity<>(body, defaultHeaders(userId)));
+            if (responseCache != null && response.getStatusCode().is2xxSuccessful()) {
+                responseCache.invalidate(uri);
+            }
+            return response;
+        }
+        ResponseCache.Entry cached = responseCache != null ? responseCache.get(uri, userId) : null;
+        if (cached != null && responseCache.isFresh(cached)) {
+            return cached.toResponse();
+        }
+        if (coalescer == null) {
+            return fetch(uri, path, userId, parameters, cached);
+        }
+        return coalescer.execute(uri, userId, () -> fetch(uri, path, userId, parameters, cached));
+    }
+
+    private ResponseEntity<Object> fetch(URI uri, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable ResponseCache.Entry cached) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.getETag());
+        }
+        ResponseEntity<Object> response = send(HttpMethod.GET, path, parameters, new HttpEntity<>(headers));
+        if (responseCache == null) {
+            return response;
+        }
+        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return responseCache.revalidated(uri, userId, cached);
+        }
+        responseCache.put(uri, userId, response);
+        return response;
+    }
+
+    protected void evictCached(URI uri) {
+        if (responseCache != null) {
+            responseCache.invalidate(uri);
+        }
+    }
+
+    private <T> ResponseEntity<Object> send(HttpMethod method, String path, @Nullable Map<String, Object> parameters, HttpEntity<T> requestEntity) {
+        if (passthrough) {
+            return forward(method, path, parameters, requestEntity);
+        }
 
         ResponseEntity<Object> shareitServerResponse;
         try {
@@ -103,6 +176,36 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    private <T> ResponseEntity<Object> forward(HttpMethod method, String path, @Nullable Map<String, Object> parameters, HttpEntity<T> requestEntity) {
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(endToEndHeaders(e.getResponseHeaders()))
+                    .body(e.getResponseBodyAsByteArray());
+        }
+        return ResponseEntity.status(shareitServerResponse.getStatusCode())
+                .headers(endToEndHeaders(shareitServerResponse.getHeaders()))
+                .body(shareitServerResponse.getBody());
+    }
+
+    private static HttpHeaders endToEndHeaders(@Nullable HttpHeaders headers) {
+        HttpHeaders result = new HttpHeaders();
+        if (headers != null) {
+            headers.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name)) {
+                    result.put(name, values);
+                }
+            });
+        }
+        return result;
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+
+public class ResponseCache {
+
+    private final Cache<Key, Entry> entries;
+    private final long ttlNanos;
+
+    public ResponseCache(ServerClientProperties.CacheProperties properties) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterAccess(properties.getMaxIdle())
+                .build();
+        this.ttlNanos = properties.getTtl().toNanos();
+    }
+
+    public Entry get(URI uri, Long userId) {
+        return entries.getIfPresent(new Key(uri, userId));
+    }
+
+    public void put(URI uri, Long userId, ResponseEntity<Object> response) {
+        String eTag = response.getHeaders().getETag();
+        if (response.getStatusCode() == HttpStatus.OK && eTag != null) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(response.getHeaders());
+            headers.remove(HttpHeaders.DATE);
+            entries.put(new Key(uri, userId), new Entry(headers, response.getBody(), eTag, System.nanoTime()));
+        }
+    }
+
+    public ResponseEntity<Object> revalidated(URI uri, Long userId, Entry entry) {
+        entries.put(new Key(uri, userId), new Entry(entry.headers, entry.body, entry.eTag, System.nanoTime()));
+        return entry.toResponse();
+    }
+
+    // запись по /items/1 сбрасывается и при изменении /items/1, и при POST /items/1/comment
+    public void invalidate(URI changed) {
+        String changedPath = changed.getPath();
+        entries.asMap().keySet().removeIf(key -> {
+            String path = key.uri.getPath();
+            return changedPath.equals(path) || changedPath.startsWith(path.endsWith("/") ? path : path + "/");
+        });
+    }
+
+    public boolean isFresh(Entry entry) {
+        return System.nanoTime() - entry.storedAt < ttlNanos;
+    }
+
+    @Value
+    private static class Key {
+        URI uri;
+        Long userId;
+    }
+
+    @Value
+    public static class Entry {
+        HttpHeaders headers;
+        Object body;
+        String eTag;
+        long storedAt;
+
+        ResponseEntity<Object> toResponse() {
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+    }
+}
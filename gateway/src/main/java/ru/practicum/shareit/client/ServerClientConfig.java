@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@Slf4j
+@EnableConfigurationProperties(ServerClientProperties.class)
+public class ServerClientConfig {
+
+    @Bean
+    public ClientHttpRequestFactory serverRequestFactory(ServerClientProperties properties) {
+        log.info("Транспорт до shareit-server: {}", properties.getTransport());
+        switch (properties.getTransport()) {
+            case JDK:
+                return new JdkClientHttpRequestFactory(properties);
+            case HTTP_COMPONENTS:
+            default:
+                return httpComponentsRequestFactory(properties);
+        }
+    }
+
+    @Bean
+    public ResponseCache responseCache(ServerClientProperties properties) {
+        return new ResponseCache(properties.getCache());
+    }
+
+    @Bean
+    public RequestCoalescer requestCoalescer(MeterRegistry meterRegistry) {
+        return new RequestCoalescer(meterRegistry);
+    }
+
+    @Bean
+    public RestTemplateCustomizer serverRequestFactoryCustomizer(ClientHttpRequestFactory serverRequestFactory) {
+        return restTemplate -> restTemplate.setRequestFactory(serverRequestFactory);
+    }
+
+    private static ClientHttpRequestFactory httpComponentsRequestFactory(ServerClientProperties properties) {
+        long keepAlive = properties.getKeepAlive().toMillis();
+        PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager(keepAlive, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(properties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+                .build();
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setConnectTimeout((int) properties.getConnectTimeout().toMillis());
+        requestFactory.setConnectionRequestTimeout((int) properties.getConnectTimeout().toMillis());
+        requestFactory.setReadTimeout((int) properties.getReadTimeout().toMillis());
+        return requestFactory;
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("shareit-server.client")
+public class ServerClientProperties {
+
+    // Оба транспорта синхронны для вызывающего: RestTemplate ждет ответа, и поток запроса Tomcat
+    // занят все время обращения к серверу. Транспорт меняет только реализацию пула соединений и таймауты.
+    public enum Transport {
+        // Apache HttpClient 4 с пулом соединений
+        HTTP_COMPONENTS,
+        // java.net.http.HttpClient: maxConnections, maxConnectionsPerRoute и keepAlive не применяются,
+        // пул этого клиента настраивается только системными свойствами jdk.httpclient.*
+        JDK
+    }
+
+    private Transport transport = Transport.HTTP_COMPONENTS;
+    private int maxConnections = 200;
+    private int maxConnectionsPerRoute = 100;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private boolean passthrough = false;
+    // одинаковые параллельные GET-запросы ждут один ответ сервера
+    private boolean coalescing = false;
+    private CacheProperties cache = new CacheProperties();
+
+    @Data
+    public static class CacheProperties {
+        private boolean enabled = false;
+        private long maxSize = 10_000;
+        // сколько ответ отдаётся без обращения к серверу, затем ревалидация по ETag
+        private Duration ttl = Duration.ofSeconds(10);
+        private Duration maxIdle = Duration.ofMinutes(10);
+    }
+}
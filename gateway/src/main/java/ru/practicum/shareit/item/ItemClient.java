@@ -4,32 +4,49 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerClientProperties;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.SearchMode;
 
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
+    private static final String REQUESTS_PREFIX = "/requests/";
+
+    private final String serverUrl;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ServerClientProperties properties, ResponseCache responseCache,
+                      RequestCoalescer coalescer) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                properties,
+                responseCache,
+                coalescer
         );
+        this.serverUrl = serverUrl;
     }
 
     public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+        ResponseEntity<Object> response = post("", userId, itemDto);
+        if (itemDto.getRequestId() != null && response.getStatusCode().is2xxSuccessful()) {
+            evictCached(URI.create(serverUrl + REQUESTS_PREFIX + itemDto.getRequestId()));
+        }
+        return response;
     }
 
     public ResponseEntity<Object> update(long userId, Long itemId, ItemDto itemDto) {
@@ -48,13 +65,30 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> search(String text, Integer from, Integer size) {
+    public ResponseEntity<Object> search(String text, SearchMode mode, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
+                "mode", mode.name(),
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", parameters);
+        return get("/search?text={text}&mode={mode}&from={from}&size={size}", parameters);
+    }
+
+    public ResponseEntity<Object> suggest(String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/suggest?prefix={prefix}&size={size}", parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(Long itemId, LocalDate from, LocalDate to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from.toString(),
+                "to", to.toString()
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", parameters);
     }
 
     public ResponseEntity<Object> createComment(long itemId, long userId, CommentDto commentDto) {
@@ -2,16 +2,19 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.SearchMode;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDate;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -54,10 +57,29 @@ public class ItemController {
 
     @GetMapping("/search")
     public ResponseEntity<Object> search(@RequestParam String text,
+                         @RequestParam(name = "mode", defaultValue = "text") String modeParam,
                          @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
                          @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        log.info("Search items, text={}, from={}, size={}", text, from, size);
-        return itemClient.search(text, from, size);
+        SearchMode mode = SearchMode
+                .from(modeParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown mode: " + modeParam));
+        log.info("Search items, text={}, mode={}, from={}, size={}", text, mode, from, size);
+        return itemClient.search(text, mode, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggest(@RequestParam String prefix,
+                          @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Suggest items, prefix={}, size={}", prefix, size);
+        return itemClient.suggest(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable Long itemId,
+                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Get availability for item {}, from={}, to={}", itemId, from, to);
+        return itemClient.getAvailability(itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
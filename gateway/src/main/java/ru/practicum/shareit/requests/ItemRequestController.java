@@ -29,9 +29,11 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getForUser(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Get requests for user, userId={}", userId);
-        return itemRequestClient.getForUser(userId);
+    public ResponseEntity<Object> getForUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                             @Positive @RequestParam(name = "size", required = false) Integer size) {
+        log.info("Get requests for user, userId={}, from={}, size={}", userId, from, size);
+        return itemRequestClient.getForUser(userId, from, size);
     }
 
     @GetMapping("/all")
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTest {
+
+    private static final int CALLERS = 16;
+    private static final URI ITEM_URI = URI.create("http://server/items/1");
+
+    private SimpleMeterRegistry registry;
+    private RequestCoalescer coalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(registry);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void concurrentIdenticalCallsShareOneUpstreamCall() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        ResponseEntity<Object> response = ResponseEntity.ok("item");
+        List<Future<ResponseEntity<Object>>> results = submitAll(() -> {
+            upstreamCalls.incrementAndGet();
+            awaitFollowers();
+            return response;
+        });
+
+        for (Future<ResponseEntity<Object>> result : results) {
+            assertSame(response, result.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, count("leader"));
+        assertEquals(CALLERS - 1, count("follower"));
+    }
+
+    @Test
+    void leaderFailureIsRethrownToEveryFollower() throws Exception {
+        IllegalStateException failure = new IllegalStateException("сервер недоступен");
+        List<Future<ResponseEntity<Object>>> results = submitAll(() -> {
+            awaitFollowers();
+            throw failure;
+        });
+
+        for (Future<ResponseEntity<Object>> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+        assertEquals(1, count("leader"));
+    }
+
+    @Test
+    void callsForDifferentUsersAreNotShared() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        coalescer.execute(ITEM_URI, 1L, () -> {
+            coalescer.execute(ITEM_URI, 2L, () -> ResponseEntity.ok(upstreamCalls.incrementAndGet()));
+            return ResponseEntity.ok(upstreamCalls.incrementAndGet());
+        });
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(2, count("leader"));
+        assertEquals(0, count("follower"));
+    }
+
+    // Завершенный запрос не кэшируется: следующий такой же снова идет на сервер
+    @Test
+    void completedCallIsNotReused() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        coalescer.execute(ITEM_URI, 1L, () -> ResponseEntity.ok(upstreamCalls.incrementAndGet()));
+        ResponseEntity<Object> second = coalescer.execute(ITEM_URI, 1L,
+                () -> ResponseEntity.ok(upstreamCalls.incrementAndGet()));
+
+        assertEquals(2, second.getBody());
+        assertEquals(2, count("leader"));
+    }
+
+    private List<Future<ResponseEntity<Object>>> submitAll(Supplier<ResponseEntity<Object>> call) {
+        List<Future<ResponseEntity<Object>>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> coalescer.execute(ITEM_URI, 1L, call)));
+        }
+        return results;
+    }
+
+    // Лидер отвечает только после того, как к нему присоединились все остальные вызовы
+    private void awaitFollowers() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (count("follower") < CALLERS - 1) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Не все вызовы присоединились к лидеру");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private long count(String role) {
+        return (long) registry.get("shareit.gateway.coalescing.requests").tag("role", role).counter().count();
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointStats {
+    private long count;
+    private long errors;
+    private long unexpected;
+    private double throughput;
+    private double p50;
+    private double p95;
+    private double p99;
+    private double max;
+}
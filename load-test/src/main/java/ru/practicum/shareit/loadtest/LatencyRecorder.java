@@ -0,0 +1,58 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long nanos, boolean error, boolean unexpected) {
+        samples.computeIfAbsent(endpoint, e -> new Samples()).add(nanos, error, unexpected);
+    }
+
+    public Map<String, EndpointStats> stats(double durationSeconds) {
+        Map<String, EndpointStats> result = new TreeMap<>();
+        samples.forEach((endpoint, s) -> result.put(endpoint, s.stats(durationSeconds)));
+        return result;
+    }
+
+    private static class Samples {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private long unexpected;
+
+        synchronized void add(long nanos, boolean error, boolean unexpectedStatus) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (error) {
+                errors++;
+            }
+            if (unexpectedStatus) {
+                unexpected++;
+            }
+        }
+
+        synchronized EndpointStats stats(double durationSeconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new EndpointStats(count, errors, unexpected, count / durationSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0);
+        }
+
+        // Метод ближайшего ранга, результат в миллисекундах
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(rank, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Нагрузочный прогон коллекции Postman через шлюз. Пример сравнения транспортов шлюза при 2000 соединений:
+//   java -jar load-test.jar --server-jar=server/target/shareit-server-0.0.1-SNAPSHOT.jar \
+//        --gateway-jar=gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar --concurrency=2000 \
+//        --gateway-args=--shareit-server.client.transport=jdk --baseline=http-components.json
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        List<Step> steps = PostmanCollection.load(options.getCollection());
+        try (ServiceLauncher launcher = new ServiceLauncher()) {
+            if (options.getServerJar() != null) {
+                launcher.startServer(options.getServerJar(), options.getServerArgs());
+            }
+            if (options.getGatewayJar() != null) {
+                launcher.startGateway(options.getGatewayJar(), options.getGatewayArgs());
+            }
+            Report report = run(options, steps);
+            print(report);
+            ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            if (options.getReport().getParent() != null) {
+                Files.createDirectories(options.getReport().getParent());
+            }
+            mapper.writeValue(options.getReport().toFile(), report);
+            System.out.println("Report written to " + options.getReport());
+            if (options.getBaseline() != null) {
+                Report baseline = mapper.readValue(options.getBaseline().toFile(), Report.class);
+                List<String> regressions = report.compareWith(baseline, options);
+                if (!regressions.isEmpty()) {
+                    System.out.println("Regressions against " + options.getBaseline() + ":");
+                    regressions.forEach(r -> System.out.println("  " + r));
+                    launcher.close();
+                    System.exit(1);
+                }
+                System.out.println("No regressions against " + options.getBaseline());
+            }
+        }
+    }
+
+    private static Report run(LoadTestOptions options, List<Step> steps) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(options.getTimeout())
+                .executor(Executors.newCachedThreadPool())
+                .build();
+        ScenarioRunner runner = new ScenarioRunner(client, options.getBaseUrl(), options.getTimeout(), steps);
+        // Первый проход с исходными данными создает сущности с id, на которые ссылается коллекция
+        runner.run(null, null);
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        int concurrency = options.getConcurrency();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long deadline = options.getDuration() == null ? Long.MAX_VALUE
+                : System.nanoTime() + options.getDuration().toNanos();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int vu = 0; vu < concurrency; vu++) {
+            int user = vu;
+            futures.add(executor.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; options.getDuration() != null ? System.nanoTime() < deadline
+                            : i < options.getIterations(); i++) {
+                        runner.run("v" + user + "i" + i, recorder);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = Duration.ofNanos(System.nanoTime() - started).toMillis() / 1000.0;
+        executor.shutdown();
+        if (failure.get() != null) {
+            throw new IllegalStateException("Load run failed", failure.get());
+        }
+        Map<String, EndpointStats> endpoints = recorder.stats(seconds);
+        long requests = endpoints.values().stream().mapToLong(EndpointStats::getCount).sum();
+        long errors = endpoints.values().stream().mapToLong(EndpointStats::getErrors).sum();
+        return new Report(concurrency, seconds, requests, errors, requests / seconds, endpoints);
+    }
+
+    private static void print(Report report) {
+        System.out.printf("%-45s %8s %7s %7s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "unexp", "req/s", "p50 ms", "p95 ms", "p99 ms");
+        report.getEndpoints().forEach((endpoint, s) -> System.out.printf(
+                "%-45s %8d %7d %7d %9.1f %9.2f %9.2f %9.2f%n", endpoint, s.getCount(), s.getErrors(),
+                s.getUnexpected(), s.getThroughput(), s.getP50(), s.getP95(), s.getP99()));
+        System.out.printf("total: %d requests, %d errors in %.1f s, %.1f req/s at concurrency %d%n",
+                report.getRequests(), report.getErrors(), report.getDurationSeconds(), report.getThroughput(),
+                report.getConcurrency());
+    }
+}
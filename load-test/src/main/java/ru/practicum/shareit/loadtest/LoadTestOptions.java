@@ -0,0 +1,102 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class LoadTestOptions {
+    private Path collection = Path.of("postman/sprint.json");
+    private String baseUrl = "http://localhost:8080";
+    private int concurrency = 16;
+    private int iterations = 5;
+    private Duration duration;
+    private Duration timeout = Duration.ofSeconds(30);
+    private Path report = Path.of("load-test/target/load-report.json");
+    private Path baseline;
+    private double tolerance = 0.2;
+    private double slackMs = 2.0;
+    private int minSamples = 20;
+    private Path serverJar;
+    private Path gatewayJar;
+    private List<String> serverArgs = Collections.emptyList();
+    private List<String> gatewayArgs = Collections.emptyList();
+
+    // Аргументы вида --concurrency=2000 --gateway-args="--shareit-server.client.transport=jdk"
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions();
+        values.forEach((key, value) -> {
+            switch (key) {
+                case "collection":
+                    options.setCollection(Path.of(value));
+                    break;
+                case "base-url":
+                    options.setBaseUrl(value);
+                    break;
+                case "concurrency":
+                    options.setConcurrency(Integer.parseInt(value));
+                    break;
+                case "iterations":
+                    options.setIterations(Integer.parseInt(value));
+                    break;
+                case "duration":
+                    options.setDuration(Duration.ofSeconds(Long.parseLong(value)));
+                    break;
+                case "timeout":
+                    options.setTimeout(Duration.ofSeconds(Long.parseLong(value)));
+                    break;
+                case "report":
+                    options.setReport(Path.of(value));
+                    break;
+                case "baseline":
+                    options.setBaseline(Path.of(value));
+                    break;
+                case "tolerance":
+                    options.setTolerance(Double.parseDouble(value));
+                    break;
+                case "slack-ms":
+                    options.setSlackMs(Double.parseDouble(value));
+                    break;
+                case "min-samples":
+                    options.setMinSamples(Integer.parseInt(value));
+                    break;
+                case "server-jar":
+                    options.setServerJar(Path.of(value));
+                    break;
+                case "gateway-jar":
+                    options.setGatewayJar(Path.of(value));
+                    break;
+                case "server-args":
+                    options.setServerArgs(split(value));
+                    break;
+                case "gateway-args":
+                    options.setGatewayArgs(split(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: --" + key);
+            }
+        });
+        if (options.getConcurrency() <= 0 || options.getIterations() <= 0) {
+            throw new IllegalArgumentException("concurrency and iterations must be positive");
+        }
+        return options;
+    }
+
+    private static List<String> split(String value) {
+        return value.isBlank() ? Collections.emptyList() : Arrays.asList(value.trim().split("\\s+"));
+    }
+}
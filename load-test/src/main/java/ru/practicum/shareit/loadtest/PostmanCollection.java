@@ -0,0 +1,116 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class PostmanCollection {
+
+    private static final Pattern SET_DATE = Pattern.compile("pm\\.environment\\.set\\('(\\w+)',\\s*(\\w+)\\.format");
+    private static final Pattern ADD = Pattern.compile("add\\((-?\\d+),\\s*'(\\w)'\\)");
+    private static final Pattern EXPECTED = Pattern.compile("oneOf\\(\\[([\\d,\\s]+)]\\)");
+    private static final Pattern SUCCESS = Pattern.compile("to\\.be\\.(ok|success)|have\\.status\\(200\\)");
+
+    private PostmanCollection() {
+    }
+
+    public static List<Step> load(Path file) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(file.toFile());
+        List<Step> steps = new ArrayList<>();
+        walk(root.path("item"), steps);
+        return steps;
+    }
+
+    private static void walk(JsonNode items, List<Step> steps) {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                walk(item.get("item"), steps);
+            } else {
+                steps.add(toStep(item));
+            }
+        }
+    }
+
+    private static Step toStep(JsonNode item) {
+        JsonNode request = item.get("request");
+        String raw = request.path("url").path("raw").asText().replace("{{baseUrl}}", "");
+        String template = raw.contains("?") ? raw.substring(0, raw.indexOf('?')) : raw;
+        String path = raw;
+        for (JsonNode variable : request.path("url").path("variable")) {
+            path = path.replace(":" + variable.path("key").asText(), variable.path("value").asText());
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (JsonNode header : request.path("header")) {
+            if (!header.path("disabled").asBoolean(false)) {
+                headers.put(header.path("key").asText(), header.path("value").asText());
+            }
+        }
+        String body = request.path("body").path("raw").asText(null);
+        String method = request.path("method").asText();
+        return new Step(item.path("name").asText(), method, path, method + " " + template, headers,
+                body == null || body.isBlank() ? null : body,
+                dateVariables(script(item, "prerequest")), expectedStatuses(script(item, "test")));
+    }
+
+    private static String script(JsonNode item, String listen) {
+        for (JsonNode event : item.path("event")) {
+            if (listen.equals(event.path("listen").asText())) {
+                StringJoiner joiner = new StringJoiner("\n");
+                event.path("script").path("exec").forEach(line -> joiner.add(line.asText()));
+                return joiner.toString();
+            }
+        }
+        return "";
+    }
+
+    // Поддерживается только то, что встречается в коллекции: moment().add(n, 'd'|'h'|'m'|'s')
+    private static Map<String, Duration> dateVariables(String script) {
+        Map<String, Duration> result = new HashMap<>();
+        Matcher set = SET_DATE.matcher(script);
+        while (set.find()) {
+            Matcher definition = Pattern.compile("var " + set.group(2) + "\\s*=\\s*(moment\\(\\)[^;\\r\\n]*)")
+                    .matcher(script);
+            if (!definition.find()) {
+                continue;
+            }
+            Duration offset = Duration.ZERO;
+            Matcher add = ADD.matcher(definition.group(1));
+            while (add.find()) {
+                long amount = Long.parseLong(add.group(1));
+                switch (add.group(2)) {
+                    case "d":
+                        offset = offset.plusDays(amount);
+                        break;
+                    case "h":
+                        offset = offset.plusHours(amount);
+                        break;
+                    case "m":
+                        offset = offset.plusMinutes(amount);
+                        break;
+                    default:
+                        offset = offset.plusSeconds(amount);
+                }
+            }
+            result.put(set.group(1), offset);
+        }
+        return result;
+    }
+
+    private static Set<Integer> expectedStatuses(String script) {
+        Matcher matcher = EXPECTED.matcher(script);
+        if (matcher.find()) {
+            Set<Integer> result = new HashSet<>();
+            for (String code : matcher.group(1).split(",")) {
+                result.add(Integer.parseInt(code.trim()));
+            }
+            return result;
+        }
+        return SUCCESS.matcher(script).find() ? Set.of(200) : Collections.emptySet();
+    }
+}
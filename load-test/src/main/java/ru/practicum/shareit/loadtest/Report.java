@@ -0,0 +1,53 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Report {
+    private int concurrency;
+    private double durationSeconds;
+    private long requests;
+    private long errors;
+    private double throughput;
+    private Map<String, EndpointStats> endpoints;
+
+    // Регрессией считается падение общей пропускной способности, рост p95 эндпоинта
+    // сверх допуска и рост доли ошибок
+    public List<String> compareWith(Report baseline, LoadTestOptions options) {
+        List<String> regressions = new ArrayList<>();
+        double tolerance = options.getTolerance();
+        if (throughput < baseline.getThroughput() * (1 - tolerance)) {
+            regressions.add(String.format("throughput %.1f req/s < baseline %.1f req/s",
+                    throughput, baseline.getThroughput()));
+        }
+        if (errorRate(errors, requests) > errorRate(baseline.getErrors(), baseline.getRequests()) + 0.01) {
+            regressions.add(String.format("error rate %.2f%% > baseline %.2f%%",
+                    100 * errorRate(errors, requests), 100 * errorRate(baseline.getErrors(), baseline.getRequests())));
+        }
+        endpoints.forEach((endpoint, current) -> {
+            EndpointStats base = baseline.getEndpoints().get(endpoint);
+            if (base == null || current.getCount() < options.getMinSamples()
+                    || base.getCount() < options.getMinSamples()) {
+                return;
+            }
+            double limit = base.getP95() * (1 + tolerance) + options.getSlackMs();
+            if (current.getP95() > limit) {
+                regressions.add(String.format("%s p95 %.2f ms > %.2f ms (baseline %.2f ms)",
+                        endpoint, current.getP95(), limit, base.getP95()));
+            }
+        });
+        return regressions;
+    }
+
+    private static double errorRate(long errors, long requests) {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+}
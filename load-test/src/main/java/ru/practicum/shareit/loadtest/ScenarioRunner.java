@@ -0,0 +1,105 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Проигрывает шаги коллекции по порядку, как один пользователь Postman
+public class ScenarioRunner {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{(\\w+)}}");
+    private static final Pattern EMAIL = Pattern.compile("(\"email\"\\s*:\\s*\")([^\"@]*)@");
+    private static final Pattern NAME = Pattern.compile("(\"name\"\\s*:\\s*\")([^\"]*)\"");
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final List<Step> steps;
+
+    public ScenarioRunner(HttpClient client, String baseUrl, Duration timeout, List<Step> steps) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.steps = steps;
+    }
+
+    // tag == null - исходные данные коллекции, иначе email и имена делаются уникальными,
+    // чтобы повторные прогоны не упирались в уникальные индексы
+    public void run(String tag, LatencyRecorder recorder) throws InterruptedException {
+        Map<String, String> variables = new HashMap<>();
+        for (Step step : steps) {
+            LocalDateTime now = LocalDateTime.now();
+            step.getDateVariables().forEach((name, offset) -> variables.put(name, now.plus(offset).format(DATE_FORMAT)));
+            HttpRequest request = toRequest(step, variables, tag);
+            long started = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            }
+            long elapsed = System.nanoTime() - started;
+            if (recorder != null) {
+                boolean expected = step.getExpectedStatuses().isEmpty() || step.getExpectedStatuses().contains(status);
+                boolean error = status < 0 || (status >= 500 && !expected);
+                recorder.record(step.getEndpoint(), elapsed, error, !expected);
+            }
+        }
+    }
+
+    private HttpRequest toRequest(Step step, Map<String, String> variables, String tag) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(encode(baseUrl + step.getPath())))
+                .timeout(timeout);
+        step.getHeaders().forEach((name, value) -> builder.header(name, substitute(value, variables)));
+        String body = step.getBody();
+        if (body == null) {
+            return builder.method(step.getMethod(), HttpRequest.BodyPublishers.noBody()).build();
+        }
+        body = substitute(body, variables);
+        if (tag != null) {
+            body = EMAIL.matcher(body).replaceAll("$1$2+" + tag + "@");
+            body = NAME.matcher(body).replaceAll("$1$2 " + tag + "\"");
+        }
+        if (!step.getHeaders().containsKey("Content-Type")) {
+            builder.header("Content-Type", "application/json");
+        }
+        return builder.method(step.getMethod(), HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private static String substitute(String text, Map<String, String> variables) {
+        Matcher matcher = VARIABLE.matcher(text);
+        StringBuilder sb = new StringBuilder();
+        while (matcher.find()) {
+            String value = variables.getOrDefault(matcher.group(1), matcher.group());
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+
+    // В коллекции есть кириллица в параметрах поиска
+    private static String encode(String url) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : url.getBytes(StandardCharsets.UTF_8)) {
+            if (b < 0 || b == ' ') {
+                sb.append('%').append(String.format("%02X", b & 0xff));
+            } else {
+                sb.append((char) b);
+            }
+        }
+        return sb.toString();
+    }
+}
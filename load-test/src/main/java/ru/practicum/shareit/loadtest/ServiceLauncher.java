@@ -0,0 +1,72 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Запускает собранные jar сервера и шлюза, сервер - с профилем test (H2 в памяти)
+public class ServiceLauncher implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final List<Process> processes = new ArrayList<>();
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    public void startServer(Path jar, List<String> args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("--spring.profiles.active=test"));
+        command.addAll(args);
+        start(jar, command, "server", "http://localhost:9090/actuator/health");
+    }
+
+    public void startGateway(Path jar, List<String> args) throws IOException, InterruptedException {
+        start(jar, args, "gateway", "http://localhost:8080/actuator/health");
+    }
+
+    private void start(Path jar, List<String> args, String name, String healthUrl)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(javaBinary(), "-jar", jar.toString()));
+        command.addAll(args);
+        Path logFile = Path.of(System.getProperty("java.io.tmpdir"), "shareit-load-test-" + name + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        processes.add(process);
+        System.out.printf("Starting %s: %s (log: %s)%n", name, command, logFile);
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue()
+                        + ", see " + logFile);
+            }
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(healthUrl)).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // еще не слушает порт
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " did not become healthy in " + STARTUP_TIMEOUT);
+    }
+
+    private static String javaBinary() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    @Override
+    public void close() {
+        for (Process process : processes) {
+            process.destroy();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+// Один запрос коллекции Postman с подставленными значениями переменных пути
+@Data
+@AllArgsConstructor
+public class Step {
+    private String name;
+    private String method;
+    // Адрес без {{baseUrl}}, например /bookings/1?approved=true
+    private String path;
+    // Ключ для статистики: метод и шаблон пути без параметров запроса
+    private String endpoint;
+    private Map<String, String> headers;
+    private String body;
+    // Переменные дат из pre-request скриптов: имя -> смещение от текущего момента
+    private Map<String, Duration> dateVariables;
+    private Set<Integer> expectedStatuses;
+}
@@ -1,9 +1,11 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingExtDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 
 import java.util.List;
 
@@ -12,6 +14,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     @PostMapping
@@ -34,18 +38,34 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingExtDto> getForBooker(@RequestHeader("X-Sharer-User-Id") Long bookerId,
-                                            @RequestParam(defaultValue = "ALL") String state,
-                                            @RequestParam(defaultValue = "0") Integer from,
-                                            @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.getForBooker(bookerId, state, from, size);
+    public ResponseEntity<List<BookingExtDto>> getForBooker(@RequestHeader("X-Sharer-User-Id") Long bookerId,
+                                                            @RequestParam(defaultValue = "ALL") String state,
+                                                            @RequestParam(defaultValue = "0") Integer from,
+                                                            @RequestParam(defaultValue = "10") Integer size,
+                                                            @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getForBooker(bookerId, state, from, size));
+        }
+        return toResponse(bookingService.getForBookerByCursor(bookerId, state, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingExtDto> getForOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                           @RequestParam(defaultValue = "ALL") String state,
-                                           @RequestParam(defaultValue = "0") Integer from,
-                                           @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.getForOwner(userId, state, from, size);
+    public ResponseEntity<List<BookingExtDto>> getForOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @RequestParam(defaultValue = "ALL") String state,
+                                                           @RequestParam(defaultValue = "0") Integer from,
+                                                           @RequestParam(defaultValue = "10") Integer size,
+                                                           @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getForOwner(userId, state, from, size));
+        }
+        return toResponse(bookingService.getForOwnerByCursor(userId, state, cursor, size));
+    }
+
+    private static ResponseEntity<List<BookingExtDto>> toResponse(BookingSliceDto slice) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (slice.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, slice.getNextCursor());
+        }
+        return response.body(slice.getBookings());
     }
 }
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "shareit.booking.expiry.enabled", havingValue = "true")
+public class BookingExpiryJob {
+
+    private final BookingRepository bookingRepository;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final DistributionSummary batchSizes;
+    private final Timer lag;
+
+    public BookingExpiryJob(BookingRepository bookingRepository,
+                            ItemAvailabilityIndex availabilityIndex,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.booking.expiry.batch-size}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.batchSizes = DistributionSummary.builder("shareit.booking.expiry.batch.size")
+                .description("Бронирований переведено в EXPIRED за один пакет")
+                .register(meterRegistry);
+        this.lag = Timer.builder("shareit.booking.expiry.lag")
+                .description("Задержка между началом бронирования и его истечением")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.expiry.interval}")
+    public void expire() {
+        int total = 0;
+        int expired;
+        do {
+            Integer count = transactionTemplate.execute(status -> expireBatch(LocalDateTime.now()));
+            expired = count == null ? 0 : count;
+            total += expired;
+        } while (expired == batchSize);
+        if (total > 0) {
+            log.info("Просрочено бронирований: {}", total);
+        }
+    }
+
+    private int expireBatch(LocalDateTime now) {
+        List<ExpiringBooking> bookings = bookingRepository.lockByStatusAndStartBefore(Status.WAITING, now,
+                PageRequest.of(0, batchSize));
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+        batchSizes.record(bookings.size());
+        bookings.forEach(booking -> lag.record(Duration.between(booking.getStart(), now)));
+        bookingRepository.updateStatus(bookings.stream().map(ExpiringBooking::getId).collect(Collectors.toList()),
+                Status.EXPIRED);
+        bookings.stream()
+                .map(ExpiringBooking::getItemId)
+                .distinct()
+                .forEach(availabilityIndex::invalidate);
+        return bookings.size();
+    }
+}
@@ -28,7 +28,8 @@ public class BookingMapper {
                 bookingDto.getEnd(),
                 null,
                 null,
-                bookingDto.getStatus()
+                bookingDto.getStatus(),
+                null
         );
     }
 
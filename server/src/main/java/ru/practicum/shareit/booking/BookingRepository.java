@@ -2,73 +2,139 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import ru.practicum.shareit.exceptions.BookingNotFoundException;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import javax.persistence.EntityNotFoundException;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    @EntityGraph(attributePaths = {"item", "item.request", "booker"})
     Page<Booking> findByBooker_Id(Long bookerId, Pageable pageable);
 
     List<Booking> findByBooker_IdAndItem_Id(Long bookerId, Long itemId);
 
+    @EntityGraph(attributePaths = {"item", "item.request", "booker"})
     Page<Booking> findByBooker_IdAndEndIsBefore(Long bookerId, LocalDateTime date, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "item.request", "booker"})
     Page<Booking> findByBooker_IdAndStartIsAfter(Long bookerId, LocalDateTime date, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "item.request", "booker"})
     Page<Booking> findByBooker_IdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime date1, LocalDateTime date2,
                                                                Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "item.request", "booker"})
     Page<Booking> findByBooker_IdAndStatus(Long bookerId, Status status, Pageable pageable);
 
-    List<Booking> findByItem_Id(Long itemId);
+    Optional<Booking> findFirstByItem_IdAndStartIsBeforeOrderByEndDesc(Long itemId, LocalDateTime date);
 
-    @Query(" select new Booking(b.id, b.start, b.end, b.item, b.booker, b.status) from Booking b " +
-            "left outer join Item i on b.item = i " +
-            "left outer join User u on u = i.owner " +
-            "where u.id = ?1")
+    Optional<Booking> findFirstByItem_IdAndStartIsAfterOrderByStartAsc(Long itemId, LocalDateTime date);
+
+    List<Booking> findByItem_IdAndStatusIn(Long itemId, Collection<Status> statuses);
+
+    boolean existsByItem_IdAndStatusInAndStartIsBeforeAndEndIsAfter(Long itemId, Collection<Status> statuses,
+                                                                    LocalDateTime end, LocalDateTime start);
+
+    @Query(" select b from Booking b " +
+            "where b.item.id in ?1 " +
+            "and ((b.start < ?2 and b.end = (select max(l.end) from Booking l where l.item = b.item and l.start < ?2)) " +
+            " or b.start = (select min(n.start) from Booking n where n.item = b.item and n.start > ?2))")
+    List<Booking> findLastAndNextForItems(Collection<Long> itemIds, LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"item", "item.request", "booker"})
+    @Query(" select b from Booking b " +
+            "where b.item.owner.id = ?1")
     Page<Booking> getAllForOwner(Long userId, Pageable pageable);
 
-    @Query(" select new Booking(b.id, b.start, b.end, b.item, b.booker, b.status) from Booking b " +
-            "left outer join Item i on b.item = i " +
-            "left outer join User u on u = i.owner " +
-            "where u.id = ?1 " +
+    @EntityGraph(attributePaths = {"item", "item.request", "booker"})
+    @Query(" select b from Booking b " +
+            "where b.item.owner.id = ?1 " +
             "and b.start < ?2 and b.end > ?2")
     Page<Booking> getCurrentForOwner(Long userId, LocalDateTime localDateTime, Pageable pageable);
 
-    @Query(" select new Booking(b.id, b.start, b.end, b.item, b.booker, b.status) from Booking b " +
-            "left outer join Item i on b.item = i " +
-            "left outer join User u on u = i.owner " +
-            "where u.id = ?1 " +
+    @EntityGraph(attributePaths = {"item", "item.request", "booker"})
+    @Query(" select b from Booking b " +
+            "where b.item.owner.id = ?1 " +
             "and b.end < ?2")
     Page<Booking> getPastForOwner(Long userId, LocalDateTime localDateTime, Pageable pageable);
 
-    @Query(" select new Booking(b.id, b.start, b.end, b.item, b.booker, b.status) from Booking b " +
-            "left outer join Item i on b.item = i " +
-            "left outer join User u on u = i.owner " +
-            "where u.id = ?1 " +
+    @EntityGraph(attributePaths = {"item", "item.request", "booker"})
+    @Query(" select b from Booking b " +
+            "where b.item.owner.id = ?1 " +
             "and b.start > ?2")
     Page<Booking> getFutureForOwner(Long userId, LocalDateTime localDateTime, Pageable pageable);
 
-    @Query(" select new Booking(b.id, b.start, b.end, b.item, b.booker, b.status) from Booking b " +
-            "left outer join Item i on b.item = i " +
-            "left outer join User u on u = i.owner " +
-            "where u.id = ?1 " +
+    @EntityGraph(attributePaths = {"item", "item.request", "booker"})
+    @Query(" select b from Booking b " +
+            "where b.item.owner.id = ?1 " +
             "and b.status = ?2")
     Page<Booking> getAllForOwnerAndStatus(Long userId, Status status, Pageable pageable);
 
-    default void checkBookingId(Long bookingId) {
-        try {
-            Booking booking = getReferenceById(bookingId);
-            BookingMapper.toBookingDto(booking);
-        } catch (EntityNotFoundException ex) {
-            throw new BookingNotFoundException("Бронирование c таким id не найдено.");
-        }
-    }
+    @EntityGraph(attributePaths = {"item", "item.request", "booker"})
+    @Query(" select b from Booking b " +
+            "where b.booker.id = :userId " +
+            "and b.status in :statuses " +
+            "and b.start > :startFrom and b.start < :startTo " +
+            "and b.end > :endFrom and b.end < :endTo " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<Booking> findForBookerBefore(@Param("userId") Long userId,
+                                       @Param("statuses") Collection<Status> statuses,
+                                       @Param("startFrom") LocalDateTime startFrom,
+                                       @Param("startTo") LocalDateTime startTo,
+                                       @Param("endFrom") LocalDateTime endFrom,
+                                       @Param("endTo") LocalDateTime endTo,
+                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                       @Param("cursorId") long cursorId,
+                                       Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.request", "booker"})
+    @Query(" select b from Booking b " +
+            "where b.item.owner.id = :userId " +
+            "and b.status in :statuses " +
+            "and b.start > :startFrom and b.start < :startTo " +
+            "and b.end > :endFrom and b.end < :endTo " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<Booking> findForOwnerBefore(@Param("userId") Long userId,
+                                      @Param("statuses") Collection<Status> statuses,
+                                      @Param("startFrom") LocalDateTime startFrom,
+                                      @Param("startTo") LocalDateTime startTo,
+                                      @Param("endFrom") LocalDateTime endFrom,
+                                      @Param("endTo") LocalDateTime endTo,
+                                      @Param("cursorStart") LocalDateTime cursorStart,
+                                      @Param("cursorId") long cursorId,
+                                      Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(" update Booking b set b.status = ?3, b.version = b.version + 1 " +
+            "where b.id = ?1 and b.status = ru.practicum.shareit.booking.Status.WAITING and b.version = ?2")
+    int updateWaitingStatus(Long bookingId, Long version, Status status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    // Только id, предмет и начало: сущность Booking жадно подтянула бы предмет и его запрос
+    @Query(" select b.id as id, b.item.id as itemId, b.start as start from Booking b " +
+            "where b.status = ?1 and b.start < ?2 " +
+            "order by b.start")
+    List<ExpiringBooking> lockByStatusAndStartBefore(Status status, LocalDateTime now, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(" update Booking b set b.status = ?2, b.version = b.version + 1 " +
+            "where b.id in ?1")
+    int updateStatus(Collection<Long> bookingIds, Status status);
 
 }
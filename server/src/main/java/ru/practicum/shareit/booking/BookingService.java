@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingExtDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 
 import java.util.List;
 
@@ -16,4 +17,8 @@ public interface BookingService {
     List<BookingExtDto> getForBooker(Long bookerId, String state, Integer from, Integer size);
 
     List<BookingExtDto> getForOwner(Long userId, String state, Integer from, Integer size);
+
+    BookingSliceDto getForBookerByCursor(Long bookerId, String state, String cursor, Integer size);
+
+    BookingSliceDto getForOwnerByCursor(Long userId, String state, String cursor, Integer size);
 }
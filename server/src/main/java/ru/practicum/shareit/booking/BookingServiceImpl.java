@@ -7,12 +7,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingExtDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
+import ru.practicum.shareit.common.ExistenceChecker;
 import ru.practicum.shareit.exceptions.*;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -22,27 +27,41 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    // Границы строгие, как в запросах со смещением, поэтому значения-заглушки лежат за пределами реальных дат
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final ExistenceChecker existenceChecker;
     private final ItemRepository itemRepository;
+    private final ItemAvailabilityIndex availabilityIndex;
 
     @Transactional
     @Override
     public BookingDto create(Long bookerId, BookingDto bookingDto) {
         isUserDefined(bookerId);
-        userRepository.checkUserId(bookerId);
-        itemRepository.checkItemId(bookingDto.getItemId());
-        Item item = itemRepository.getReferenceById(bookingDto.getItemId());
+        existenceChecker.checkUser(bookerId);
+        Item item = itemRepository.findByIdForUpdate(bookingDto.getItemId())
+                .orElseThrow(() -> new ItemNotFoundException("Предмет c таким id не найден."));
         if (item.getOwner().getId() == bookerId) {
             throw new UserNotFoundException("Пользователь - владелец предмета");
         }
         if (item.getAvailable()) {
             checkDate(bookingDto.getStart(), bookingDto.getEnd());
+            if (bookingRepository.existsByItem_IdAndStatusInAndStartIsBeforeAndEndIsAfter(item.getId(),
+                    ACTIVE_STATUSES, bookingDto.getEnd(), bookingDto.getStart())) {
+                log.warn("Предмет уже забронирован на эти даты");
+                throw new BookingOverlapException("Предмет уже забронирован на эти даты");
+            }
             Booking booking = BookingMapper.toBooking(bookingDto);
             booking.setItem(item);
             booking.setBooker(userRepository.getReferenceById(bookerId));
             booking.setStatus(Status.WAITING);
-            return BookingMapper.toBookingDto(bookingRepository.save(booking));
+            booking = bookingRepository.save(booking);
+            availabilityIndex.markBusy(booking);
+            return BookingMapper.toBookingDto(booking);
         }
         log.warn("Предмет не доступен для аренды");
         throw new ItemNotAvailableException("Предмет не доступен для аренды");
@@ -52,30 +71,42 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public BookingExtDto changeStatus(Long userId, Long bookingId, Boolean approved) {
         isUserDefined(userId);
-        userRepository.checkUserId(userId);
-        bookingRepository.checkBookingId(bookingId);
+        existenceChecker.checkUser(userId);
+        existenceChecker.checkBooking(bookingId);
         Booking booking = bookingRepository.getReferenceById(bookingId);
         Item item = booking.getItem();
         if (item.getOwner().getId() != userId) {
             log.warn("Пользователь не владелец предмета");
             throw new UserIsNotOwnerException("Пользователь не владелец предмета");
         }
+        if (approved && booking.getStatus() == Status.APPROVED) {
+            throw new StatusAlreadyChangedException("Уже подтверждено");
+        }
+        // Решение принимается только по ожидающему бронированию: завершенное не возвращается
+        // в APPROVED в обход проверки пересечений при создании
+        if (booking.getStatus() != Status.WAITING) {
+            log.warn("Бронирование уже в статусе {}", booking.getStatus());
+            throw new StatusAlreadyChangedException("Бронирование уже в статусе " + booking.getStatus());
+        }
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        if (bookingRepository.updateWaitingStatus(bookingId, booking.getVersion(), status) == 0) {
+            log.warn("Статус бронирования изменён другим запросом");
+            throw new BookingConflictException("Статус бронирования изменён другим запросом");
+        }
+        booking = bookingRepository.getReferenceById(bookingId);
         if (approved) {
-            if (booking.getStatus() == Status.APPROVED) {
-                throw new StatusAlreadyChangedException("Уже подтверждено");
-            }
-            booking.setStatus(Status.APPROVED);
+            availabilityIndex.markBusy(booking);
         } else {
-            booking.setStatus(Status.REJECTED);
+            availabilityIndex.invalidate(item.getId());
         }
-        return BookingMapper.toBookingExtDto(bookingRepository.save(booking));
+        return BookingMapper.toBookingExtDto(booking);
     }
 
     @Override
     public BookingExtDto getById(Long userId, Long bookingId) {
         isUserDefined(userId);
-        userRepository.checkUserId(userId);
-        bookingRepository.checkBookingId(bookingId);
+        existenceChecker.checkUser(userId);
+        existenceChecker.checkBooking(bookingId);
         Booking booking = bookingRepository.getReferenceById(bookingId);
         Item item = booking.getItem();
         if (item.getOwner().getId() == userId || booking.getBooker().getId() == userId) {
@@ -90,7 +121,7 @@ public class BookingServiceImpl implements BookingService {
         for (State s : State.values()) {
             if (state.equals(s.toString())) {
                 isUserDefined(bookerId);
-                userRepository.checkUserId(bookerId);
+                existenceChecker.checkUser(bookerId);
                 State st = State.valueOf(state.toUpperCase());
                 Page<Booking> bookings;
                 Sort sort = Sort.by(Sort.Direction.DESC, "start");
@@ -127,7 +158,7 @@ public class BookingServiceImpl implements BookingService {
         for (State s : State.values()) {
             if (state.equals(s.toString())) {
                 isUserDefined(userId);
-                userRepository.checkUserId(userId);
+                existenceChecker.checkUser(userId);
                 if (itemRepository.findByOwner_Id(userId).isEmpty()) {
                     log.warn("У пользователя нет предметов");
                     return Collections.emptyList();
@@ -159,6 +190,72 @@ public class BookingServiceImpl implements BookingService {
         throw new IncorrectParameterException("state", state);
     }
 
+    @Override
+    public BookingSliceDto getForBookerByCursor(Long bookerId, String state, String cursor, Integer size) {
+        State st = toState(state);
+        isUserDefined(bookerId);
+        existenceChecker.checkUser(bookerId);
+        return findByCursor(false, bookerId, st, BookingCursor.decode(cursor), size);
+    }
+
+    @Override
+    public BookingSliceDto getForOwnerByCursor(Long userId, String state, String cursor, Integer size) {
+        State st = toState(state);
+        isUserDefined(userId);
+        existenceChecker.checkUser(userId);
+        BookingCursor after = BookingCursor.decode(cursor);
+        if (!itemRepository.existsByOwner_Id(userId)) {
+            log.warn("У пользователя нет предметов");
+            return new BookingSliceDto(Collections.emptyList(), null);
+        }
+        return findByCursor(true, userId, st, after, size);
+    }
+
+    private BookingSliceDto findByCursor(boolean forOwner, Long userId, State state, BookingCursor after,
+                                         Integer size) {
+        LocalDateTime now = LocalDateTime.now();
+        Collection<Status> statuses = Arrays.asList(Status.values());
+        LocalDateTime startFrom = MIN_DATE;
+        LocalDateTime startTo = MAX_DATE;
+        LocalDateTime endFrom = MIN_DATE;
+        LocalDateTime endTo = MAX_DATE;
+        switch (state) {
+            case ALL:
+                break;
+            case CURRENT:
+                startTo = now;
+                endFrom = now;
+                break;
+            case PAST:
+                endTo = now;
+                break;
+            case FUTURE:
+                startFrom = now;
+                break;
+            default:
+                statuses = List.of(Status.valueOf(state.name()));
+        }
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<Booking> bookings = forOwner
+                ? bookingRepository.findForOwnerBefore(userId, statuses, startFrom, startTo, endFrom, endTo,
+                after.getStart(), after.getId(), pageable)
+                : bookingRepository.findForBookerBefore(userId, statuses, startFrom, startTo, endFrom, endTo,
+                after.getStart(), after.getId(), pageable);
+        List<Booking> content = bookings.getContent();
+        String nextCursor = bookings.hasNext() ? BookingCursor.encode(content.get(content.size() - 1)) : null;
+        return new BookingSliceDto(
+                content.stream().map(BookingMapper::toBookingExtDto).collect(Collectors.toList()),
+                nextCursor
+        );
+    }
+
+    private State toState(String state) {
+        return Arrays.stream(State.values())
+                .filter(s -> s.toString().equals(state))
+                .findFirst()
+                .orElseThrow(() -> new IncorrectParameterException("state", state));
+    }
+
     private void isUserDefined(Long userId) {
         if (userId == null) {
             log.warn("Пользователь не определен");
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+public interface ExpiringBooking {
+
+    Long getId();
+
+    Long getItemId();
+
+    LocalDateTime getStart();
+}
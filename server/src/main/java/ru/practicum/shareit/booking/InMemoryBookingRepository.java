@@ -0,0 +1,273 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.InMemoryRepository;
+import ru.practicum.shareit.item.InMemoryItemRepository;
+import ru.practicum.shareit.user.InMemoryUserRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+@Component
+@Primary
+@ConditionalOnProperty(name = "shareit.storage.backend", havingValue = "memory")
+public class InMemoryBookingRepository extends InMemoryRepository<Booking> implements BookingRepository {
+
+    private static final Comparator<Booking> NEWEST_FIRST = Comparator.comparing(Booking::getStart)
+            .thenComparingLong(Booking::getId)
+            .reversed();
+
+    private final InMemoryItemRepository itemRepository;
+    private final InMemoryUserRepository userRepository;
+
+    // Вторичный индекс предмет -> id его бронирований
+    private final ConcurrentHashMap<Long, Set<Long>> bookingsByItem = new ConcurrentHashMap<>();
+
+    public InMemoryBookingRepository(InMemoryItemRepository itemRepository, InMemoryUserRepository userRepository) {
+        super(Booking.class);
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Page<Booking> findByBooker_Id(Long bookerId, Pageable pageable) {
+        return findPageMatching(byBooker(bookerId), pageable);
+    }
+
+    @Override
+    public List<Booking> findByBooker_IdAndItem_Id(Long bookerId, Long itemId) {
+        return findForItem(itemId, byBooker(bookerId));
+    }
+
+    @Override
+    public Page<Booking> findByBooker_IdAndEndIsBefore(Long bookerId, LocalDateTime date, Pageable pageable) {
+        return findPageMatching(byBooker(bookerId).and(b -> b.getEnd().isBefore(date)), pageable);
+    }
+
+    @Override
+    public Page<Booking> findByBooker_IdAndStartIsAfter(Long bookerId, LocalDateTime date, Pageable pageable) {
+        return findPageMatching(byBooker(bookerId).and(b -> b.getStart().isAfter(date)), pageable);
+    }
+
+    @Override
+    public Page<Booking> findByBooker_IdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime date1,
+                                                                      LocalDateTime date2, Pageable pageable) {
+        return findPageMatching(byBooker(bookerId).and(b -> b.getStart().isBefore(date1) && b.getEnd().isAfter(date2)),
+                pageable);
+    }
+
+    @Override
+    public Page<Booking> findByBooker_IdAndStatus(Long bookerId, Status status, Pageable pageable) {
+        return findPageMatching(byBooker(bookerId).and(b -> b.getStatus() == status), pageable);
+    }
+
+    @Override
+    public Optional<Booking> findFirstByItem_IdAndStartIsBeforeOrderByEndDesc(Long itemId, LocalDateTime date) {
+        return findForItem(itemId, b -> b.getStart().isBefore(date)).stream()
+                .max(Comparator.comparing(Booking::getEnd).thenComparingLong(b -> -b.getId()));
+    }
+
+    @Override
+    public Optional<Booking> findFirstByItem_IdAndStartIsAfterOrderByStartAsc(Long itemId, LocalDateTime date) {
+        return findForItem(itemId, b -> b.getStart().isAfter(date)).stream()
+                .min(Comparator.comparing(Booking::getStart).thenComparingLong(Booking::getId));
+    }
+
+    @Override
+    public List<Booking> findByItem_IdAndStatusIn(Long itemId, Collection<Status> statuses) {
+        return findForItem(itemId, b -> statuses.contains(b.getStatus()));
+    }
+
+    @Override
+    public boolean existsByItem_IdAndStatusInAndStartIsBeforeAndEndIsAfter(Long itemId, Collection<Status> statuses,
+                                                                           LocalDateTime end, LocalDateTime start) {
+        return !findForItem(itemId, b -> statuses.contains(b.getStatus())
+                && b.getStart().isBefore(end) && b.getEnd().isAfter(start)).isEmpty();
+    }
+
+    // Последнее начавшееся бронирование с наибольшим end и ближайшее будущее, как в подзапросах JPQL-версии
+    @Override
+    public List<Booking> findLastAndNextForItems(Collection<Long> itemIds, LocalDateTime now) {
+        List<Booking> result = new ArrayList<>();
+        for (Long itemId : new LinkedHashSet<>(itemIds)) {
+            List<Booking> bookings = findForItem(itemId, b -> true);
+            bookings.stream()
+                    .filter(b -> b.getStart().isBefore(now))
+                    .map(Booking::getEnd)
+                    .max(Comparator.naturalOrder())
+                    .ifPresent(lastEnd -> bookings.stream()
+                            .filter(b -> b.getStart().isBefore(now) && b.getEnd().equals(lastEnd))
+                            .forEach(result::add));
+            bookings.stream()
+                    .filter(b -> b.getStart().isAfter(now))
+                    .map(Booking::getStart)
+                    .min(Comparator.naturalOrder())
+                    .ifPresent(nextStart -> bookings.stream()
+                            .filter(b -> b.getStart().equals(nextStart))
+                            .forEach(result::add));
+        }
+        return result;
+    }
+
+    @Override
+    public Page<Booking> getAllForOwner(Long userId, Pageable pageable) {
+        return findPageMatching(byOwner(userId), pageable);
+    }
+
+    @Override
+    public Page<Booking> getCurrentForOwner(Long userId, LocalDateTime localDateTime, Pageable pageable) {
+        return findPageMatching(byOwner(userId)
+                .and(b -> b.getStart().isBefore(localDateTime) && b.getEnd().isAfter(localDateTime)), pageable);
+    }
+
+    @Override
+    public Page<Booking> getPastForOwner(Long userId, LocalDateTime localDateTime, Pageable pageable) {
+        return findPageMatching(byOwner(userId).and(b -> b.getEnd().isBefore(localDateTime)), pageable);
+    }
+
+    @Override
+    public Page<Booking> getFutureForOwner(Long userId, LocalDateTime localDateTime, Pageable pageable) {
+        return findPageMatching(byOwner(userId).and(b -> b.getStart().isAfter(localDateTime)), pageable);
+    }
+
+    @Override
+    public Page<Booking> getAllForOwnerAndStatus(Long userId, Status status, Pageable pageable) {
+        return findPageMatching(byOwner(userId).and(b -> b.getStatus() == status), pageable);
+    }
+
+    @Override
+    public Slice<Booking> findForBookerBefore(Long userId, Collection<Status> statuses,
+                                              LocalDateTime startFrom, LocalDateTime startTo,
+                                              LocalDateTime endFrom, LocalDateTime endTo,
+                                              LocalDateTime cursorStart, long cursorId, Pageable pageable) {
+        return findSliceMatching(byBooker(userId)
+                        .and(within(statuses, startFrom, startTo, endFrom, endTo))
+                        .and(before(cursorStart, cursorId)),
+                NEWEST_FIRST, pageable);
+    }
+
+    @Override
+    public Slice<Booking> findForOwnerBefore(Long userId, Collection<Status> statuses,
+                                             LocalDateTime startFrom, LocalDateTime startTo,
+                                             LocalDateTime endFrom, LocalDateTime endTo,
+                                             LocalDateTime cursorStart, long cursorId, Pageable pageable) {
+        return findSliceMatching(byOwner(userId)
+                        .and(within(statuses, startFrom, startTo, endFrom, endTo))
+                        .and(before(cursorStart, cursorId)),
+                NEWEST_FIRST, pageable);
+    }
+
+    @Override
+    public int updateWaitingStatus(Long bookingId, Long version, Status status) {
+        return update(bookingId, b -> b.getStatus() == Status.WAITING && Objects.equals(b.getVersion(), version),
+                b -> b.setStatus(status));
+    }
+
+    // Блокировок строк здесь нет, поэтому вместо FOR UPDATE SKIP LOCKED
+    // updateStatus переводит только те бронирования, которые все еще ждут решения
+    @Override
+    public List<ExpiringBooking> lockByStatusAndStartBefore(Status status, LocalDateTime now, Pageable pageable) {
+        return findSliceMatching(b -> b.getStatus() == status && b.getStart().isBefore(now),
+                Comparator.comparing(Booking::getStart).thenComparingLong(Booking::getId),
+                PageRequest.of(0, pageable.getPageSize())).getContent().stream()
+                .map(b -> new ExpiringBooking() {
+                    @Override
+                    public Long getId() {
+                        return b.getId();
+                    }
+
+                    @Override
+                    public Long getItemId() {
+                        return b.getItem().getId();
+                    }
+
+                    @Override
+                    public LocalDateTime getStart() {
+                        return b.getStart();
+                    }
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int updateStatus(Collection<Long> bookingIds, Status status) {
+        int updated = 0;
+        for (Long id : bookingIds) {
+            updated += update(id, b -> b.getStatus() == Status.WAITING, b -> b.setStatus(status));
+        }
+        return updated;
+    }
+
+    @Override
+    protected void beforeSave(Booking old, Booking booking) {
+        bookingsByItem.computeIfAbsent(booking.getItem().getId(), id -> ConcurrentHashMap.newKeySet())
+                .add(booking.getId());
+    }
+
+    @Override
+    protected void afterDelete(Booking booking) {
+        bookingsByItem.getOrDefault(booking.getItem().getId(), Collections.emptySet()).remove(booking.getId());
+    }
+
+    @Override
+    protected long getId(Booking booking) {
+        return booking.getId();
+    }
+
+    @Override
+    protected void setId(Booking booking, long id) {
+        booking.setId(id);
+    }
+
+    @Override
+    protected Long getVersion(Booking booking) {
+        return booking.getVersion();
+    }
+
+    @Override
+    protected void setVersion(Booking booking, Long version) {
+        booking.setVersion(version);
+    }
+
+    @Override
+    protected Booking copy(Booking booking) {
+        return new Booking(booking.getId(), booking.getStart(), booking.getEnd(),
+                itemRepository.resolve(booking.getItem()), userRepository.resolve(booking.getBooker()),
+                booking.getStatus(), booking.getVersion());
+    }
+
+    private List<Booking> findForItem(Long itemId, Predicate<Booking> predicate) {
+        return findAllById(new TreeSet<>(bookingsByItem.getOrDefault(itemId, Collections.emptySet()))).stream()
+                .filter(predicate)
+                .collect(Collectors.toList());
+    }
+
+    private static Predicate<Booking> byBooker(Long bookerId) {
+        return b -> b.getBooker().getId() == bookerId;
+    }
+
+    private static Predicate<Booking> byOwner(Long ownerId) {
+        return b -> b.getItem().getOwner().getId() == ownerId;
+    }
+
+    private static Predicate<Booking> within(Collection<Status> statuses,
+                                             LocalDateTime startFrom, LocalDateTime startTo,
+                                             LocalDateTime endFrom, LocalDateTime endTo) {
+        return b -> statuses.contains(b.getStatus())
+                && b.getStart().isAfter(startFrom) && b.getStart().isBefore(startTo)
+                && b.getEnd().isAfter(endFrom) && b.getEnd().isBefore(endTo);
+    }
+
+    private static Predicate<Booking> before(LocalDateTime cursorStart, long cursorId) {
+        return b -> b.getStart().isBefore(cursorStart) || b.getStart().equals(cursorStart) && b.getId() < cursorId;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// Каждый ответ с ошибкой, в том числе необработанные исключения, которые не доходят до ErrorHandler
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ErrorMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } catch (ServletException | IOException | RuntimeException e) {
+            // Контейнер ответит 500 уже после фильтров
+            count(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getCause() == null ? e : e.getCause());
+            throw e;
+        }
+        if (response.getStatus() >= HttpServletResponse.SC_BAD_REQUEST) {
+            count(response.getStatus(), (Throwable) request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE));
+        }
+    }
+
+    private void count(int status, Throwable exception) {
+        Counter.builder("shareit.errors")
+                .tag("exception", exception == null ? "none" : exception.getClass().getSimpleName())
+                .tag("status", String.valueOf(status))
+                .register(registry)
+                .increment();
+    }
+}
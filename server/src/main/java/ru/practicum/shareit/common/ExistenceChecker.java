@@ -0,0 +1,87 @@
+package ru.practicum.shareit.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.exceptions.ItemNotFoundException;
+import ru.practicum.shareit.exceptions.ItemRequestNotFoundException;
+import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.requests.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.function.Function;
+
+@Component
+public class ExistenceChecker {
+
+    private final KnownIds users;
+    private final KnownIds items;
+    private final KnownIds bookings;
+    private final KnownIds itemRequests;
+
+    public ExistenceChecker(UserRepository userRepository,
+                            ItemRepository itemRepository,
+                            BookingRepository bookingRepository,
+                            ItemRequestRepository itemRequestRepository,
+                            @Value("${shareit.existence-cache.max-size}") long maxSize) {
+        users = new KnownIds(userRepository, maxSize, UserNotFoundException::new,
+                "Пользователь c таким id не найден.");
+        items = new KnownIds(itemRepository, maxSize, ItemNotFoundException::new,
+                "Предмет c таким id не найден.");
+        bookings = new KnownIds(bookingRepository, maxSize, BookingNotFoundException::new,
+                "Бронирование c таким id не найдено.");
+        itemRequests = new KnownIds(itemRequestRepository, maxSize, ItemRequestNotFoundException::new,
+                "Запрос c таким id не найдено.");
+    }
+
+    public void checkUser(Long userId) {
+        users.check(userId);
+    }
+
+    public void checkItem(Long itemId) {
+        items.check(itemId);
+    }
+
+    public void checkBooking(Long bookingId) {
+        bookings.check(bookingId);
+    }
+
+    public void checkItemRequest(Long itemRequestId) {
+        itemRequests.check(itemRequestId);
+    }
+
+    public void userDeleted(Long userId) {
+        users.evict(userId);
+    }
+
+    private static class KnownIds {
+        private final CrudRepository<?, Long> repository;
+        private final Cache<Long, Boolean> known;
+        private final Function<String, RuntimeException> notFound;
+        private final String message;
+
+        KnownIds(CrudRepository<?, Long> repository, long maxSize,
+                 Function<String, RuntimeException> notFound, String message) {
+            this.repository = repository;
+            this.known = Caffeine.newBuilder().maximumSize(maxSize).build();
+            this.notFound = notFound;
+            this.message = message;
+        }
+
+        void check(Long id) {
+            if (id == null || known.getIfPresent(id) == null && !repository.existsById(id)) {
+                throw notFound.apply(message);
+            }
+            known.put(id, Boolean.TRUE);
+        }
+
+        void evict(Long id) {
+            known.invalidate(id);
+        }
+    }
+}
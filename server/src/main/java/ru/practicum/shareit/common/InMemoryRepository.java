@@ -0,0 +1,401 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.support.PropertyComparator;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import javax.persistence.EntityNotFoundException;
+import java.beans.PropertyDescriptor;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+// Хранилище без БД с контрактом JpaRepository. Запись идет через compute, поэтому
+// изменения одного id сериализуются блокировкой своей корзины ConcurrentHashMap.
+// Наружу отдаются копии, чтобы изменения были видны другим потокам только после save.
+// Наследники объявляются через @Component, а не @Repository: трансляция исключений превратила бы
+// EntityNotFoundException из getReferenceById в JpaObjectRetrievalFailureException, а сервисы ждут
+// исходное исключение, как от ленивой ссылки JPA.
+public abstract class InMemoryRepository<T> implements JpaRepository<T, Long> {
+
+    private final ConcurrentHashMap<Long, T> entities = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Class<T> entityClass;
+
+    protected InMemoryRepository(Class<T> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    protected abstract long getId(T entity);
+
+    protected abstract void setId(T entity, long id);
+
+    protected abstract Long getVersion(T entity);
+
+    protected abstract void setVersion(T entity, Long version);
+
+    protected abstract T copy(T entity);
+
+    // Вызывается под блокировкой корзины id до сохранения, old == null для новой сущности
+    protected void beforeSave(T old, T entity) {
+    }
+
+    protected void afterDelete(T entity) {
+    }
+
+    // Связи между сущностями хранятся снимками, при чтении они заменяются текущим состоянием
+    public T resolve(T reference) {
+        if (reference == null) {
+            return null;
+        }
+        T current = entities.get(getId(reference));
+        return current == null ? reference : copy(current);
+    }
+
+    protected List<T> findAllMatching(Predicate<T> predicate) {
+        return entities.values().stream()
+                .filter(predicate)
+                .sorted(Comparator.comparingLong(this::getId))
+                .map(this::copy)
+                .collect(Collectors.toList());
+    }
+
+    protected Optional<T> findFirstMatching(Predicate<T> predicate, Comparator<T> order) {
+        return entities.values().stream()
+                .filter(predicate)
+                .min(order)
+                .map(this::copy);
+    }
+
+    protected Page<T> findPageMatching(Predicate<T> predicate, Pageable pageable) {
+        List<T> all = findAllMatching(predicate);
+        all.sort(comparator(pageable.getSort()));
+        return new PageImpl<>(pageOf(all, pageable), pageable, all.size());
+    }
+
+    // Как Slice из Spring Data: есть ли следующая страница, без подсчета общего числа
+    protected Slice<T> findSliceMatching(Predicate<T> predicate, Comparator<T> order, Pageable pageable) {
+        List<T> all = entities.values().stream()
+                .filter(predicate)
+                .sorted(order)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1L)
+                .map(this::copy)
+                .collect(Collectors.toList());
+        boolean hasNext = all.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? all.subList(0, pageable.getPageSize()) : all, pageable, hasNext);
+    }
+
+    // Аналог update ... where id = ?, возвращает число измененных строк
+    protected int update(Long id, Predicate<T> condition, Consumer<T> change) {
+        boolean[] updated = new boolean[1];
+        entities.computeIfPresent(id, (k, old) -> {
+            if (!condition.test(old)) {
+                return old;
+            }
+            T next = copy(old);
+            change.accept(next);
+            setVersion(next, nextVersion(old));
+            recordUndo(id, old, next);
+            updated[0] = true;
+            return next;
+        });
+        return updated[0] ? 1 : 0;
+    }
+
+    // Аналог OPTIMISTIC_FORCE_INCREMENT, возвращает число измененных строк
+    protected int incrementVersion(Long id) {
+        return update(id, e -> true, e -> {
+        });
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        if (getId(entity) == 0) {
+            setId(entity, sequence.incrementAndGet());
+        }
+        long id = getId(entity);
+        entities.compute(id, (k, old) -> {
+            Long version = getVersion(entity);
+            if (old != null && version != null && !version.equals(getVersion(old))) {
+                throw new ObjectOptimisticLockingFailureException(entityClass, id);
+            }
+            T stored = copy(entity);
+            beforeSave(old, stored);
+            setVersion(stored, old == null ? 0L : nextVersion(old));
+            recordUndo(id, old, stored);
+            return stored;
+        });
+        setVersion(entity, getVersion(entities.get(id)));
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> result = new ArrayList<>();
+        entities.forEach(e -> result.add(save(e)));
+        return result;
+    }
+
+    @Override
+    public <S extends T> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends T> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public Optional<T> findById(Long id) {
+        return Optional.ofNullable(entities.get(id)).map(this::copy);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return entities.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return findAllMatching(e -> true);
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        List<T> result = findAll();
+        result.sort(comparator(sort));
+        return result;
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        return findPageMatching(e -> true, pageable);
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<Long> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(entities::get)
+                .filter(Objects::nonNull)
+                .map(this::copy)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long count() {
+        return entities.size();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        T removed = entities.remove(id);
+        if (removed == null) {
+            throw new EmptyResultDataAccessException(entityClass.getSimpleName() + " с id " + id + " не найден", 1);
+        }
+        afterDelete(removed);
+        recordUndo(id, removed, null);
+    }
+
+    @Override
+    public void delete(T entity) {
+        T removed = entities.remove(getId(entity));
+        if (removed != null) {
+            afterDelete(removed);
+            recordUndo(getId(removed), removed, null);
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        new ArrayList<>(entities.values()).forEach(this::delete);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<T> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    public T getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public T getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public T getReferenceById(Long id) {
+        return findById(id).orElseThrow(() ->
+                new EntityNotFoundException(entityClass.getSimpleName() + " с id " + id + " не найден"));
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        List<S> found = findAll(example);
+        if (found.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, found.size());
+        }
+        return found.stream().findFirst();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        Predicate<T> matches = matcherOf(example);
+        List<S> result = new ArrayList<>();
+        findAllMatching(matches).forEach(e -> result.add(example.getProbeType().cast(e)));
+        return result;
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        List<S> result = findAll(example);
+        result.sort(comparator(sort));
+        return result;
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        List<S> all = findAll(example);
+        all.sort(comparator(pageable.getSort()));
+        List<S> page = pageable.isUnpaged() ? all : all.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+        return new PageImpl<>(page, pageable, all.size());
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        return entities.values().stream().filter(matcherOf(example)).count();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        return entities.values().stream().anyMatch(matcherOf(example));
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupported();
+    }
+
+    protected UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Операция не поддерживается хранилищем в памяти");
+    }
+
+    // При откате запись возвращается к прежнему состоянию, если после нее id никто не менял.
+    // Индексы наследников правятся теми же beforeSave и afterDelete, что и при обычной записи
+    private void recordUndo(long id, T old, T written) {
+        InMemoryUndoLog.record(() -> entities.compute(id, (k, current) -> {
+            if (current != written) {
+                return current;
+            }
+            if (old == null) {
+                afterDelete(written);
+            } else {
+                beforeSave(written, old);
+            }
+            return old;
+        }));
+    }
+
+    // Сопоставитель по умолчанию: все заданные простые поля образца равны, id и версия не учитываются
+    private <S extends T> Predicate<T> matcherOf(Example<S> example) {
+        ExampleMatcher matcher = example.getMatcher();
+        if (matcher.isAnyMatching() || matcher.isIgnoreCaseEnabled()
+                || matcher.getDefaultStringMatcher() != ExampleMatcher.StringMatcher.DEFAULT
+                || matcher.getNullHandler() != ExampleMatcher.NullHandler.IGNORE
+                || matcher.getPropertySpecifiers().hasValues()) {
+            throw unsupported();
+        }
+        S probe = example.getProbe();
+        BeanWrapper probeWrapper = new BeanWrapperImpl(probe);
+        Map<String, Object> expected = new HashMap<>();
+        for (PropertyDescriptor property : probeWrapper.getPropertyDescriptors()) {
+            String name = property.getName();
+            if (property.getReadMethod() == null || name.equals("class") || matcher.isIgnoredPath(name)) {
+                continue;
+            }
+            Object value = probeWrapper.getPropertyValue(name);
+            if (value == null || name.equals("id") || name.equals("version")) {
+                continue;
+            }
+            if (!BeanUtils.isSimpleValueType(property.getPropertyType())) {
+                throw unsupported();
+            }
+            expected.put(name, value);
+        }
+        return entity -> {
+            BeanWrapper wrapper = new BeanWrapperImpl(entity);
+            return expected.entrySet().stream()
+                    .allMatch(e -> e.getValue().equals(wrapper.getPropertyValue(e.getKey())));
+        };
+    }
+
+    // У сущностей без @Version версия всегда null
+    private Long nextVersion(T old) {
+        Long version = getVersion(old);
+        return version == null ? null : version + 1;
+    }
+
+    private List<T> pageOf(List<T> all, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return all;
+        }
+        return all.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    protected Comparator<T> comparator(Sort sort) {
+        Comparator<T> result = Comparator.comparingLong(this::getId);
+        List<Sort.Order> orders = sort.toList();
+        for (int i = orders.size() - 1; i >= 0; i--) {
+            Sort.Order order = orders.get(i);
+            result = new PropertyComparator<T>(order.getProperty(), order.isIgnoreCase(), order.isAscending())
+                    .thenComparing(result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.ResourceHolderSupport;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Транзакции для хранилища в памяти, БД при этом не нужна. Изоляции нет: изменения видны сразу,
+// при откате их отменяет InMemoryUndoLog. Заменяет JpaTransactionManager, даже если источник данных есть
+@Component
+@ConditionalOnProperty(name = "shareit.storage.backend", havingValue = "memory")
+public class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+    @Override
+    protected Object doGetTransaction() {
+        return new InMemoryTransaction((ResourceHolderSupport) TransactionSynchronizationManager.getResource(this));
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((InMemoryTransaction) transaction).holder != null;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        InMemoryTransaction inMemoryTransaction = (InMemoryTransaction) transaction;
+        inMemoryTransaction.holder = new ResourceHolderSupport() {
+        };
+        TransactionSynchronizationManager.bindResource(this, inMemoryTransaction.holder);
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        ((InMemoryTransaction) transaction).holder = null;
+        return TransactionSynchronizationManager.unbindResource(this);
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        TransactionSynchronizationManager.bindResource(this, suspendedResources);
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+
+    // Откат во вложенном участнике помечает всю транзакцию, как у JPA
+    @Override
+    protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+        ((InMemoryTransaction) status.getTransaction()).holder.setRollbackOnly();
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        TransactionSynchronizationManager.unbindResource(this);
+    }
+
+    private static class InMemoryTransaction implements SmartTransactionObject {
+        private ResourceHolderSupport holder;
+
+        InMemoryTransaction(ResourceHolderSupport holder) {
+            this.holder = holder;
+        }
+
+        @Override
+        public boolean isRollbackOnly() {
+            return holder.isRollbackOnly();
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+}
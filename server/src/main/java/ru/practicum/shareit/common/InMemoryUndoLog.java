@@ -0,0 +1,53 @@
+package ru.practicum.shareit.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// Журнал отмены записей хранилища в памяти: при откате транзакции записи отменяются в обратном порядке.
+// Один журнал на транзакцию, поиск идет среди ее синхронизаций, поэтому REQUIRES_NEW получает свой
+@Slf4j
+class InMemoryUndoLog implements TransactionSynchronization {
+
+    private final Deque<Runnable> actions = new ArrayDeque<>();
+
+    // Без транзакции запись сразу окончательна, как автокоммит у JPA-репозитория
+    static void record(Runnable undo) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof InMemoryUndoLog) {
+                ((InMemoryUndoLog) synchronization).actions.push(undo);
+                return;
+            }
+        }
+        InMemoryUndoLog undoLog = new InMemoryUndoLog();
+        undoLog.actions.push(undo);
+        TransactionSynchronizationManager.registerSynchronization(undoLog);
+    }
+
+    // Раньше остальных синхронизаций: блокировки транзакции снимаются уже после отмены
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        if (status != STATUS_ROLLED_BACK) {
+            return;
+        }
+        for (Runnable undo : actions) {
+            try {
+                undo.run();
+            } catch (RuntimeException e) {
+                log.warn("Не удалось отменить запись в хранилище в памяти", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.common.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+// Тело ответа буферизуется только в режиме enforce, чтобы заголовки со статистикой успели попасть в ответ.
+// Без него превышение бюджета видно в логе и в метрике shareit.sql.budget.overruns
+@Slf4j
+@RequiredArgsConstructor
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry registry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = properties.isEnforce()
+                ? new ContentCachingResponseWrapper(response) : null;
+        SqlStats stats = SqlStats.start();
+        try {
+            chain.doFilter(request, wrapper == null ? response : wrapper);
+        } finally {
+            SqlStats.stop();
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + ":" + (pattern == null ? request.getRequestURI() : pattern);
+        log.debug("{}: SQL-запросов {}, {} мс", endpoint, stats.getCount(), stats.getMillis());
+
+        Map.Entry<String, Integer> repeated = stats.mostRepeated();
+        if (repeated != null && repeated.getValue() >= properties.getRepeatThreshold()) {
+            log.warn("{}: возможный N+1, запрос выполнен {} раз: {}", endpoint, repeated.getValue(), repeated.getKey());
+        }
+        int budget = properties.budgetFor(endpoint);
+        boolean overrun = stats.getCount() > budget;
+        if (overrun) {
+            log.warn("{}: выполнено {} SQL-запросов при бюджете {}", endpoint, stats.getCount(), budget);
+            // Без шаблона в тег попал бы произвольный путь
+            Counter.builder("shareit.sql.budget.overruns")
+                    .tag("endpoint", pattern == null ? request.getMethod() + ":UNKNOWN" : endpoint)
+                    .register(registry)
+                    .increment();
+        }
+        if (wrapper != null) {
+            wrapper.setHeader("X-Sql-Count", String.valueOf(stats.getCount()));
+            wrapper.setHeader("X-Sql-Time", String.valueOf(stats.getMillis()));
+            if (overrun) {
+                wrapper.setHeader("X-Sql-Budget-Exceeded", String.valueOf(budget));
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.common.sql;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties("shareit.sql")
+public class SqlBudgetProperties {
+    // подсчет SQL-запросов и проверка бюджета
+    private boolean enabled = true;
+    // буферизовать ответ ради заголовков X-Sql-Count / X-Sql-Time и X-Sql-Budget-Exceeded при превышении.
+    // Буфер держит все тело ответа в памяти, поэтому в рабочих профилях остается false
+    private boolean enforce = false;
+    private int defaultBudget = 10;
+    // одинаковый запрос, выполненный столько раз за HTTP-запрос, считается признаком N+1
+    private int repeatThreshold = 5;
+    // ключ - метод и шаблон пути, двоеточие в .properties экранируется:
+    // shareit.sql.budgets.[GET\:/items/{itemId}]=8
+    private Map<String, Integer> budgets = new HashMap<>();
+
+    public int budgetFor(String endpoint) {
+        return budgets.getOrDefault(endpoint, defaultBudget);
+    }
+}
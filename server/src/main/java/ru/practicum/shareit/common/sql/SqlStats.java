@@ -0,0 +1,51 @@
+package ru.practicum.shareit.common.sql;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// SQL-запросы текущего HTTP-запроса. Потоки без HTTP-запроса (планировщик, @Async) не учитываются
+public class SqlStats {
+
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> statements = new HashMap<>();
+    private int count;
+    private long nanos;
+
+    public static SqlStats start() {
+        SqlStats stats = new SqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlStats current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    void statement(String sql) {
+        count++;
+        statements.merge(sql, 1, Integer::sum);
+    }
+
+    void elapsed(long nanos) {
+        this.nanos += nanos;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getMillis() {
+        return nanos / 1_000_000;
+    }
+
+    public Map.Entry<String, Integer> mostRepeated() {
+        return statements.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.common.sql;
+
+import org.hibernate.BaseSessionEventListener;
+
+// Hibernate создает слушатель на каждую сессию, поэтому время копится в поле до конца выполнения
+public class SqlTimingListener extends BaseSessionEventListener {
+
+    private long started;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        started = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        started = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        SqlStats stats = SqlStats.current();
+        if (stats != null) {
+            stats.elapsed(System.nanoTime() - started);
+        }
+    }
+}
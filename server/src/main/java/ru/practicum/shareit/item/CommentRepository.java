@@ -1,9 +1,19 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItem_Id(Long itemId);
+
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findByItem_IdIn(Collection<Long> itemIds);
+
+    // Новый комментарий прибавляет хотя бы 1, переименование автора - его новую версию
+    @Query("select coalesce(sum(c.author.version + 1), 0) from Comment c where c.item.id = ?1")
+    long sumAuthorVersionsByItemId(Long itemId);
 }
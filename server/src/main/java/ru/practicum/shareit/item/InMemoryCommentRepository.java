@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.InMemoryRepository;
+import ru.practicum.shareit.user.InMemoryUserRepository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@Primary
+@ConditionalOnProperty(name = "shareit.storage.backend", havingValue = "memory")
+public class InMemoryCommentRepository extends InMemoryRepository<Comment> implements CommentRepository {
+
+    private final InMemoryItemRepository itemRepository;
+    private final InMemoryUserRepository userRepository;
+
+    public InMemoryCommentRepository(InMemoryItemRepository itemRepository, InMemoryUserRepository userRepository) {
+        super(Comment.class);
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public List<Comment> findByItem_Id(Long itemId) {
+        return findAllMatching(c -> c.getItem().getId() == itemId);
+    }
+
+    @Override
+    public List<Comment> findByItem_IdIn(Collection<Long> itemIds) {
+        Set<Long> ids = new HashSet<>(itemIds);
+        return findAllMatching(c -> ids.contains(c.getItem().getId()));
+    }
+
+    @Override
+    public long sumAuthorVersionsByItemId(Long itemId) {
+        return findByItem_Id(itemId).stream().mapToLong(c -> c.getAuthor().getVersion() + 1).sum();
+    }
+
+    @Override
+    protected long getId(Comment comment) {
+        return comment.getId() == null ? 0 : comment.getId();
+    }
+
+    @Override
+    protected void setId(Comment comment, long id) {
+        comment.setId(id);
+    }
+
+    @Override
+    protected Long getVersion(Comment comment) {
+        return null;
+    }
+
+    @Override
+    protected void setVersion(Comment comment, Long version) {
+    }
+
+    @Override
+    protected Comment copy(Comment comment) {
+        return new Comment(comment.getId(), comment.getText(), itemRepository.resolve(comment.getItem()),
+                userRepository.resolve(comment.getAuthor()), comment.getCreated());
+    }
+}
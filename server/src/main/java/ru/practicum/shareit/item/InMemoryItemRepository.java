@@ -1,54 +1,152 @@
 package ru.practicum.shareit.item;
 
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
-import ru.practicum.shareit.exceptions.ItemNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.common.InMemoryRepository;
+import ru.practicum.shareit.requests.InMemoryItemRequestRepository;
+import ru.practicum.shareit.user.InMemoryUserRepository;
 
-import java.util.Collection;
-import java.util.HashMap;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
-@Component("inMemoryItemRepository")
-@Slf4j
-@RequiredArgsConstructor
-public class InMemoryItemRepository {
+@Component
+@Primary
+@ConditionalOnProperty(name = "shareit.storage.backend", havingValue = "memory")
+public class InMemoryItemRepository extends InMemoryRepository<Item> implements ItemRepository {
 
-    private final HashMap<Long, Item> items = new HashMap<>();
-    private long id = 1;
-    private final ItemValidator validator;
+    private static final int LOCK_STRIPES = 64;
 
-    public Item get(Long id) {
-        if (!items.containsKey(id)) {
-            log.warn("Предмет c таким id не найден.");
-            throw new ItemNotFoundException("Предмет c таким id не найден.");
+    private final InMemoryUserRepository userRepository;
+    private final InMemoryItemRequestRepository itemRequestRepository;
+
+    // Вторичный индекс владелец -> id его вещей
+    private final ConcurrentHashMap<Long, Set<Long>> itemsByOwner = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public InMemoryItemRepository(InMemoryUserRepository userRepository,
+                                  InMemoryItemRequestRepository itemRequestRepository) {
+        super(Item.class);
+        this.userRepository = userRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
         }
-        return items.get(id);
     }
 
-    public Collection<Item> getAll() {
-        return items.values();
+    @Override
+    public List<Item> findByOwner_Id(Long userId) {
+        return findAllById(new TreeSet<>(itemsByOwner.getOrDefault(userId, Collections.emptySet())));
+    }
+
+    @Override
+    public Page<Item> findByOwner_Id(Long userId, Pageable pageable) {
+        List<Item> items = findByOwner_Id(userId);
+        List<Item> content = items.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, items.size());
+    }
+
+    @Override
+    public boolean existsByOwner_Id(Long userId) {
+        return !itemsByOwner.getOrDefault(userId, Collections.emptySet()).isEmpty();
+    }
+
+    // Как select ... for update: блокировка держится до конца транзакции, без транзакции сразу снимается
+    @Override
+    public Optional<Item> findByIdForUpdate(Long itemId) {
+        ReentrantLock lock = locks[Math.floorMod(itemId.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        } else {
+            lock.unlock();
+        }
+        return findById(itemId);
+    }
+
+    @Override
+    public long sumVersionsByRequestId(Long requestId) {
+        return findByRequest_Id(requestId).stream().mapToLong(item -> item.getVersion() + 1).sum();
+    }
+
+    @Override
+    public Optional<ItemVersion> findVersionById(Long itemId) {
+        return findById(itemId).map(item -> new ItemVersion() {
+            @Override
+            public Long getOwnerId() {
+                return item.getOwner().getId();
+            }
+
+            @Override
+            public Long getVersion() {
+                return item.getVersion();
+            }
+        });
+    }
+
+    @Override
+    public List<Item> findByRequest_Id(Long requestId) {
+        return findAllMatching(item -> item.getRequest() != null && item.getRequest().getId() == requestId);
     }
 
-    public Item create(Item item) {
-        validator.validateItem(item);
-        item.setId(id++);
-        items.put(item.getId(), item);
-        log.debug("Текущее количество предметов: {}", items.size());
-        return item;
+    @Override
+    public List<Item> findByRequest_IdIn(Collection<Long> requestIds) {
+        Set<Long> ids = new HashSet<>(requestIds);
+        return findAllMatching(item -> item.getRequest() != null && ids.contains(item.getRequest().getId()));
     }
 
-    public void remove(Item item) {
-        if (!items.containsKey(id)) {
-            log.warn("Предмет c таким id не найден.");
-            throw new ItemNotFoundException("Предмет c таким id не найден.");
+    @Override
+    protected void beforeSave(Item old, Item item) {
+        if (old != null && old.getOwner().getId() != item.getOwner().getId()) {
+            itemsByOwner.getOrDefault(old.getOwner().getId(), Collections.emptySet()).remove(old.getId());
         }
-        items.remove(item.getId());
+        itemsByOwner.computeIfAbsent(item.getOwner().getId(), id -> ConcurrentHashMap.newKeySet()).add(item.getId());
+    }
+
+    @Override
+    protected void afterDelete(Item item) {
+        itemsByOwner.getOrDefault(item.getOwner().getId(), Collections.emptySet()).remove(item.getId());
+    }
+
+    @Override
+    protected long getId(Item item) {
+        return item.getId();
+    }
+
+    @Override
+    protected void setId(Item item, long id) {
+        item.setId(id);
+    }
+
+    @Override
+    protected Long getVersion(Item item) {
+        return item.getVersion();
+    }
+
+    @Override
+    protected void setVersion(Item item, Long version) {
+        item.setVersion(version);
     }
 
-    public Item update(Item item) {
-        validator.validateItem(item);
-        items.put(item.getId(), item);
-        log.debug("Текущее количество предметов: {}", items.size());
-        return item;
+    @Override
+    protected Item copy(Item item) {
+        return new Item(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                userRepository.resolve(item.getOwner()), itemRequestRepository.resolve(item.getRequest()),
+                item.getVersion());
     }
 }
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtDto;
 
+import java.time.LocalDate;
 import java.util.Collection;
 
 @RestController
@@ -30,7 +34,12 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ItemExtDto getItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                              @PathVariable Long itemId) {
+                              @PathVariable Long itemId,
+                              WebRequest request) {
+        String eTag = itemService.getItemETag(itemId, userId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
         return itemService.getItem(itemId, userId);
     }
 
@@ -43,9 +52,25 @@ public class ItemController {
 
     @GetMapping("/search")
     public Collection<ItemDto> search(@RequestParam String text,
+                                      @RequestParam(defaultValue = "TEXT") String mode,
                                       @RequestParam(defaultValue = "0") Integer from,
                                       @RequestParam(defaultValue = "10") Integer size) {
-        return itemService.search(text, from, size);
+        return itemService.search(text, mode, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public Collection<String> suggest(@RequestParam String prefix,
+                                      @RequestParam(defaultValue = "10") Integer size) {
+        return itemService.suggest(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Collection<AvailabilitySlotDto> getAvailability(@PathVariable Long itemId,
+                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                           LocalDate from,
+                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                           LocalDate to) {
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
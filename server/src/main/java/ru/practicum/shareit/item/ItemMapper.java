@@ -27,6 +27,7 @@ public class ItemMapper {
                 itemDto.getDescription(),
                 itemDto.getAvailable(),
                 null,
+                null,
                 null
         );
     }
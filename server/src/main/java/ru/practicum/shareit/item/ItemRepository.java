@@ -3,11 +3,17 @@ package ru.practicum.shareit.item;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
-import ru.practicum.shareit.exceptions.UserNotFoundException;
+import org.springframework.data.jpa.repository.QueryHints;
 
-import javax.persistence.EntityNotFoundException;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
@@ -15,20 +21,21 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     Page<Item> findByOwner_Id(Long userId, Pageable pageable);
 
+    boolean existsByOwner_Id(Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long itemId);
+
+    @Query("select i.owner.id as ownerId, i.version as version from Item i where i.id = ?1")
+    Optional<ItemVersion> findVersionById(Long itemId);
+
+    // Каждый новый ответ прибавляет хотя бы 1, каждое изменение ответа - свою версию
+    @Query("select coalesce(sum(i.version + 1), 0) from Item i where i.request.id = ?1")
+    long sumVersionsByRequestId(Long requestId);
+
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
     List<Item> findByRequest_Id(Long requestId);
 
-    @Query(" select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%'))" +
-            " and i.available = true")
-    Page<Item> search(String text, Pageable pageable);
-
-    default void checkItemId(Long itemId) {
-        try {
-            Item item = getReferenceById(itemId);
-            ItemMapper.toItemDto(item);
-        } catch (EntityNotFoundException ex) {
-            throw new UserNotFoundException("Предмет c таким id не найден.");
-        }
-    }
+    List<Item> findByRequest_IdIn(Collection<Long> requestIds);
 }
@@ -1,10 +1,13 @@
 package ru.practicum.shareit.item;
 
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtDto;
 
+import java.time.LocalDate;
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemService {
 
@@ -12,11 +15,17 @@ public interface ItemService {
 
     ItemDto update(Long itemId, Long userId, ItemDto itemDto);
 
+    String getItemETag(Long itemId, Long userId);
+
     ItemExtDto getItem(Long itemId, Long userId);
 
     Collection<ItemExtDto> getAllForUser(Long userId, Integer from, Integer size);
 
-    Collection<ItemDto> search(String text, Integer from, Integer size);
+    Collection<ItemDto> search(String text, String mode, Integer from, Integer size);
+
+    Collection<String> suggest(String prefix, Integer size);
+
+    List<AvailabilitySlotDto> getAvailability(Long itemId, LocalDate from, LocalDate to);
 
     CommentDto createComment(Long itemId, Long userId, CommentDto commentDto);
 }
@@ -12,13 +12,21 @@ import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.common.ExistenceChecker;
+import ru.practicum.shareit.common.Transactions;
 import ru.practicum.shareit.exceptions.CommentCreateException;
+import ru.practicum.shareit.exceptions.IncorrectParameterException;
 import ru.practicum.shareit.exceptions.UserIsNotOwnerException;
 import ru.practicum.shareit.exceptions.UserNotDefinedException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtDto;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.item.search.SearchMode;
 import ru.practicum.shareit.requests.ItemRequestRepository;
 import ru.practicum.shareit.user.UserRepository;
 
@@ -34,9 +42,13 @@ public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ExistenceChecker existenceChecker;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSuggestIndex suggestIndex;
+    private final ItemAvailabilityIndex availabilityIndex;
 
     private final ItemValidator validator;
 
@@ -44,20 +56,25 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public ItemDto create(Long userId, ItemDto itemDto) {
         isUserDefined(userId);
-        userRepository.checkUserId(userId);
+        existenceChecker.checkUser(userId);
         Item item = ItemMapper.toItem(itemDto);
         validator.validateItem(item);
         item.setOwner(userRepository.getReferenceById(userId));
         Long requestId = itemDto.getRequestId();
-        item.setRequest(requestId != null ? itemRequestRepository.getReferenceById(requestId) : null);
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        if (requestId != null) {
+            existenceChecker.checkItemRequest(requestId);
+            item.setRequest(itemRequestRepository.getReferenceById(requestId));
+        }
+        item = itemRepository.save(item);
+        reindex(item);
+        return ItemMapper.toItemDto(item);
     }
 
     @Transactional
     @Override
     public ItemDto update(Long itemId, Long userId, ItemDto itemDto) {
         isUserDefined(userId);
-        userRepository.checkUserId(userId);
+        existenceChecker.checkUser(userId);
         Item item = itemRepository.getReferenceById(itemId);
         if (item.getOwner().getId() != userId) {
             log.warn("Пользователь не владелец предмета");
@@ -67,13 +84,25 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getDescription() != null) item.setDescription(itemDto.getDescription());
         if (itemDto.getAvailable() != null) item.setAvailable(itemDto.getAvailable());
         validator.validateItem(item);
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        item = itemRepository.save(item);
+        reindex(item);
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Override
+    public String getItemETag(Long itemId, Long userId) {
+        existenceChecker.checkUser(userId);
+        return itemRepository.findVersionById(itemId)
+                .filter(v -> !v.getOwnerId().equals(userId))
+                .map(v -> "item-" + itemId + "-" + v.getVersion()
+                        + "-" + commentRepository.sumAuthorVersionsByItemId(itemId))
+                .orElse(null);
     }
 
     @Override
     public ItemExtDto getItem(Long itemId, Long userId) {
-        itemRepository.checkItemId(itemId);
-        userRepository.checkUserId(userId);
+        existenceChecker.checkItem(itemId);
+        existenceChecker.checkUser(userId);
         Item item = itemRepository.getReferenceById(itemId);
         if (item.getOwner().getId() == userId) {
             return createItemExtDto(item);
@@ -84,37 +113,60 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public Collection<ItemExtDto> getAllForUser(Long userId, Integer from, Integer size) {
         isUserDefined(userId);
-        List<ItemExtDto> result = new ArrayList<>();
         Pageable pageable = PageRequest.of(from, size, Sort.by("id"));
         Page<Item> items = itemRepository.findByOwner_Id(userId, pageable);
         if (items.isEmpty()) {
             return Collections.emptyList();
         }
-        for (Item i : items) {
-            result.add(createItemExtDto(i));
-        }
-        return result;
+        return createItemExtDtos(items.getContent());
     }
 
     @Override
-    public Collection<ItemDto> search(String text, Integer from, Integer size) {
-        if (text.isEmpty()) {
+    public Collection<ItemDto> search(String text, String mode, Integer from, Integer size) {
+        SearchMode searchMode = Arrays.stream(SearchMode.values())
+                .filter(m -> m.name().equalsIgnoreCase(mode))
+                .findFirst()
+                .orElseThrow(() -> new IncorrectParameterException("mode", mode));
+        if (text.isBlank()) {
             return Collections.emptyList();
         }
-        Pageable pageable = PageRequest.of(from, size, Sort.by("id"));
-        return itemRepository.search(text, pageable).stream()
+        Pageable pageable = PageRequest.of(from, size);
+        List<Long> ids = searchMode == SearchMode.FUZZY
+                ? searchIndex.fuzzySearch(text, pageable)
+                : searchIndex.search(text, pageable);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, i -> i));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Collection<String> suggest(String prefix, Integer size) {
+        return suggestIndex.suggest(prefix, size);
+    }
+
+    @Override
+    public List<AvailabilitySlotDto> getAvailability(Long itemId, LocalDate from, LocalDate to) {
+        existenceChecker.checkItem(itemId);
+        validator.validatePeriod(from, to);
+        return availabilityIndex.getSlots(itemId, from, to);
+    }
+
+    @Transactional
     @Override
     public CommentDto createComment(Long itemId, Long userId, CommentDto commentDto) {
         if (commentDto.getText().isEmpty()) {
             throw new ValidationException("Комментарий не может быть пустым");
         }
         isUserDefined(userId);
-        itemRepository.checkItemId(itemId);
-        userRepository.checkUserId(userId);
+        existenceChecker.checkItem(itemId);
+        existenceChecker.checkUser(userId);
         Comment comment = CommentMapper.toComment(commentDto);
         List<Booking> bookings = bookingRepository.findByBooker_IdAndItem_Id(userId, itemId);
         if (bookings.isEmpty()) {
@@ -140,14 +192,10 @@ public class ItemServiceImpl implements ItemService {
 
     private ItemExtDto createItemExtDto(Item i) {
         ItemExtDto itemDto = ItemMapper.toItemExtDto(i);
-        BookingDto lastBooking = bookingRepository.findByItem_Id(i.getId()).stream()
-                .filter(b -> b.getEnd().isBefore(LocalDateTime.now())
-                        || (b.getStart().isBefore(LocalDateTime.now()) && b.getEnd().isAfter(LocalDateTime.now())))
-                .max(Comparator.comparing(Booking::getEnd))
+        LocalDateTime now = LocalDateTime.now();
+        BookingDto lastBooking = bookingRepository.findFirstByItem_IdAndStartIsBeforeOrderByEndDesc(i.getId(), now)
                 .map(BookingMapper::toBookingDto).orElse(null);
-        BookingDto nextBooking = bookingRepository.findByItem_Id(i.getId()).stream()
-                .filter(b -> b.getStart().isAfter(LocalDateTime.now()))
-                .min(Comparator.comparing(Booking::getStart))
+        BookingDto nextBooking = bookingRepository.findFirstByItem_IdAndStartIsAfterOrderByStartAsc(i.getId(), now)
                 .map(BookingMapper::toBookingDto).orElse(null);
 
         itemDto.setLastBooking(lastBooking);
@@ -159,6 +207,34 @@ public class ItemServiceImpl implements ItemService {
         return itemDto;
     }
 
+    private List<ItemExtDto> createItemExtDtos(List<Item> items) {
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        for (Booking b : bookingRepository.findLastAndNextForItems(itemIds, now)) {
+            Map<Long, Booking> target = b.getStart().isBefore(now) ? lastBookings : nextBookings;
+            target.merge(b.getItem().getId(), b, (b1, b2) -> b1.getId() < b2.getId() ? b1 : b2);
+        }
+        Map<Long, List<CommentDto>> comments = commentRepository.findByItem_IdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+
+        List<ItemExtDto> result = new ArrayList<>();
+        for (Item i : items) {
+            ItemExtDto itemDto = ItemMapper.toItemExtDto(i);
+            Booking lastBooking = lastBookings.get(i.getId());
+            Booking nextBooking = nextBookings.get(i.getId());
+            itemDto.setLastBooking(lastBooking != null ? BookingMapper.toBookingDto(lastBooking) : null);
+            itemDto.setNextBooking(nextBooking != null ? BookingMapper.toBookingDto(nextBooking) : null);
+            itemDto.setComments(comments.getOrDefault(i.getId(), Collections.emptyList()));
+            result.add(itemDto);
+        }
+        return result;
+    }
+
     private ItemExtDto addCommentToItemExtDto(Item i) {
         ItemExtDto itemDto = ItemMapper.toItemExtDto(i);
         List<CommentDto> comments = commentRepository.findByItem_Id(i.getId()).stream()
@@ -168,6 +244,14 @@ public class ItemServiceImpl implements ItemService {
         return itemDto;
     }
 
+    // Индексы в памяти не откатываются вместе с транзакцией, поэтому обновляются после фиксации
+    private void reindex(Item item) {
+        Transactions.afterCommit(() -> {
+            searchIndex.index(item);
+            suggestIndex.index(item);
+        });
+    }
+
     public ItemValidator getValidator() {
         return validator;
     }
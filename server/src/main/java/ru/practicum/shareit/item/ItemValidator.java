@@ -1,13 +1,23 @@
 package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.exceptions.ValidationException;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
 @Component
 @Slf4j
 public class ItemValidator {
 
+    private final long availabilityMaxDays;
+
+    public ItemValidator(@Value("${shareit.availability.max-days}") long availabilityMaxDays) {
+        this.availabilityMaxDays = availabilityMaxDays;
+    }
+
     public void validateItem(Item item) throws ValidationException {
         if (item.getName() == null || item.getName().isEmpty()) {
             log.warn("Название не может быть пустым");
@@ -22,4 +32,16 @@ public class ItemValidator {
             throw new ValidationException("Ошибка валидации");
         }
     }
+
+    // Ответ - список интервалов по дням, поэтому длину периода ограничиваем
+    public void validatePeriod(LocalDate from, LocalDate to) throws ValidationException {
+        if (from.isAfter(to)) {
+            log.warn("Начало периода позже окончания");
+            throw new ValidationException("Начало периода позже окончания");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= availabilityMaxDays) {
+            log.warn("Период длиннее {} дней", availabilityMaxDays);
+            throw new ValidationException("Период не может быть длиннее " + availabilityMaxDays + " дней");
+        }
+    }
 }
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item;
+
+public interface ItemVersion {
+
+    Long getOwnerId();
+
+    Long getVersion();
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.availability;
+
+class DayBitmap {
+
+    private long firstWord;
+    private long[] words = new long[0];
+
+    void set(long fromDay, long toDay) {
+        long fromWord = Math.floorDiv(fromDay, Long.SIZE);
+        long toWord = Math.floorDiv(toDay, Long.SIZE);
+        ensureCapacity(fromWord, toWord);
+        for (long w = fromWord; w <= toWord; w++) {
+            long mask = -1L;
+            if (w == fromWord) {
+                mask &= -1L << Math.floorMod(fromDay, Long.SIZE);
+            }
+            if (w == toWord) {
+                mask &= -1L >>> (Long.SIZE - 1 - Math.floorMod(toDay, Long.SIZE));
+            }
+            words[(int) (w - firstWord)] |= mask;
+        }
+    }
+
+    boolean get(long day) {
+        return (word(Math.floorDiv(day, Long.SIZE)) & (1L << Math.floorMod(day, Long.SIZE))) != 0;
+    }
+
+    long nextSet(long day, long limit) {
+        return next(day, limit, true);
+    }
+
+    long nextClear(long day, long limit) {
+        return next(day, limit, false);
+    }
+
+    private long next(long day, long limit, boolean set) {
+        while (day <= limit) {
+            long wordIndex = Math.floorDiv(day, Long.SIZE);
+            long word = set ? word(wordIndex) : ~word(wordIndex);
+            word &= -1L << Math.floorMod(day, Long.SIZE);
+            if (word != 0) {
+                return Math.min(wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word), limit + 1);
+            }
+            day = (wordIndex + 1) * Long.SIZE;
+        }
+        return limit + 1;
+    }
+
+    private long word(long wordIndex) {
+        long i = wordIndex - firstWord;
+        return i >= 0 && i < words.length ? words[(int) i] : 0L;
+    }
+
+    private void ensureCapacity(long fromWord, long toWord) {
+        if (words.length == 0) {
+            firstWord = fromWord;
+            words = new long[(int) (toWord - fromWord + 1)];
+            return;
+        }
+        long lastWord = firstWord + words.length - 1;
+        if (fromWord >= firstWord && toWord <= lastWord) {
+            return;
+        }
+        long newFirst = Math.min(firstWord, fromWord);
+        long newLast = Math.max(lastWord, toWord);
+        long[] grown = new long[(int) (newLast - newFirst + 1)];
+        System.arraycopy(words, 0, grown, (int) (firstWord - newFirst), words.length);
+        words = grown;
+        firstWord = newFirst;
+    }
+}
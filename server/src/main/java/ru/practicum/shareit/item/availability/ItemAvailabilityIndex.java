@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item.availability;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.common.Transactions;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Component
+public class ItemAvailabilityIndex {
+
+    private static final List<Status> BUSY_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    private static final int STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+
+    // Карты хранятся только для недавно запрошенных предметов, остальные вытесняются
+    private final ConcurrentMap<Long, DayBitmap> bitmaps;
+    // Счетчики изменений по полосам id предмета, чтобы не кэшировать карту, загруженную до фиксации
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 @Value("${shareit.availability.cache.max-size}") long maxSize) {
+        this.bookingRepository = bookingRepository;
+        this.bitmaps = Caffeine.newBuilder().maximumSize(maxSize).<Long, DayBitmap>build().asMap();
+    }
+
+    public List<AvailabilitySlotDto> getSlots(Long itemId, LocalDate from, LocalDate to) {
+        // Загрузка идет вне computeIfAbsent: запрос к БД под блокировкой корзины кэша
+        // задержал бы все обращения к соседним ключам
+        DayBitmap bitmap = bitmaps.get(itemId);
+        if (bitmap == null) {
+            int stripe = stripe(itemId);
+            long stamp = stamps.get(stripe);
+            DayBitmap loaded = load(itemId);
+            bitmap = bitmaps.putIfAbsent(itemId, loaded);
+            if (bitmap == null) {
+                bitmap = loaded;
+                // Бронирование зафиксировали во время загрузки: карта могла его не увидеть
+                if (stamps.get(stripe) != stamp) {
+                    bitmaps.remove(itemId, loaded);
+                }
+            }
+        }
+        long last = to.toEpochDay();
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        synchronized (bitmap) {
+            long day = from.toEpochDay();
+            while (day <= last) {
+                boolean busy = bitmap.get(day);
+                long next = busy ? bitmap.nextClear(day, last) : bitmap.nextSet(day, last);
+                slots.add(new AvailabilitySlotDto(LocalDate.ofEpochDay(day), LocalDate.ofEpochDay(next - 1), !busy));
+                day = next;
+            }
+        }
+        return slots;
+    }
+
+    public void markBusy(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        long fromDay = booking.getStart().toLocalDate().toEpochDay();
+        long toDay = booking.getEnd().toLocalDate().toEpochDay();
+        Transactions.afterCommit(() -> {
+            stamps.incrementAndGet(stripe(itemId));
+            bitmaps.computeIfPresent(itemId, (id, bitmap) -> {
+                synchronized (bitmap) {
+                    bitmap.set(fromDay, toDay);
+                }
+                return bitmap;
+            });
+        });
+    }
+
+    public void invalidate(Long itemId) {
+        Transactions.afterCommit(() -> {
+            stamps.incrementAndGet(stripe(itemId));
+            bitmaps.remove(itemId);
+        });
+    }
+
+    private DayBitmap load(Long itemId) {
+        DayBitmap bitmap = new DayBitmap();
+        for (Booking booking : bookingRepository.findByItem_IdAndStatusIn(itemId, BUSY_STATUSES)) {
+            bitmap.set(booking.getStart().toLocalDate().toEpochDay(), booking.getEnd().toLocalDate().toEpochDay());
+        }
+        return bitmap;
+    }
+
+    private static int stripe(Long itemId) {
+        return (int) (itemId % STRIPES);
+    }
+}
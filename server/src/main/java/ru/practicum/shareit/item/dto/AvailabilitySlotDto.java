@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class AvailabilitySlotDto {
+    private LocalDate from;
+    private LocalDate to;
+    private Boolean free;
+}
@@ -0,0 +1,271 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+@Component
+// Хранилище в памяти не дает SQL-поиска, поэтому shareit.storage.backend=memory включает этот индекс
+@ConditionalOnExpression("'${shareit.search.backend:postgres}' == 'memory' " +
+        "or '${shareit.storage.backend:jpa}' == 'memory'")
+@Slf4j
+public class InMemoryItemSearchIndex implements ItemSearchIndex {
+
+    private static final double NAME_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double PREFIX_PENALTY = 0.5;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final double fuzzyThreshold;
+    private final int candidatesPerToken;
+
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Double>> itemTokens = new HashMap<>();
+    private final Map<String, Set<String>> trigramTokens = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public InMemoryItemSearchIndex(ItemRepository itemRepository,
+                                   @Value("${shareit.search.fuzzy.threshold}") double fuzzyThreshold,
+                                   @Value("${shareit.search.candidates-per-token}") int candidatesPerToken) {
+        this.itemRepository = itemRepository;
+        this.fuzzyThreshold = fuzzyThreshold;
+        this.candidatesPerToken = candidatesPerToken;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+        Page<Item> page;
+        do {
+            page = itemRepository.findAll(pageable);
+            page.forEach(this::index);
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        log.info("Поисковый индекс построен, предметов: {}", itemTokens.size());
+    }
+
+    @Override
+    public void index(Item item) {
+        Map<String, Double> weights = new HashMap<>();
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            SearchTokenizer.tokenize(item.getName()).forEach(t -> weights.merge(t, NAME_WEIGHT, Double::sum));
+            SearchTokenizer.tokenize(item.getDescription())
+                    .forEach(t -> weights.merge(t, DESCRIPTION_WEIGHT, Double::sum));
+        }
+        lock.writeLock().lock();
+        try {
+            Map<String, Double> oldWeights = itemTokens.remove(item.getId());
+            if (oldWeights != null) {
+                oldWeights.forEach((token, weight) -> {
+                    Postings items = postings.get(token);
+                    items.remove(item.getId(), weight);
+                    if (items.isEmpty()) {
+                        postings.remove(token);
+                        removeTrigrams(token);
+                    }
+                });
+            }
+            if (weights.isEmpty()) {
+                return;
+            }
+            weights.forEach((token, weight) -> postings.computeIfAbsent(token, t -> {
+                addTrigrams(t);
+                return new Postings();
+            }).add(item.getId(), weight));
+            itemTokens.put(item.getId(), weights);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> search(String text, Pageable pageable) {
+        return searchAll(SearchTokenizer.tokenize(text), pageable);
+    }
+
+    // Короткие и служебные слова отброшены, поэтому оставшиеся обязательны, как в search
+    @Override
+    public List<Long> match(String text, Pageable pageable) {
+        return searchAll(SearchTokenizer.significant(text), pageable);
+    }
+
+    private List<Long> searchAll(List<String> tokens, Pageable pageable) {
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Double> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String token : new LinkedHashSet<>(tokens)) {
+                // Все слова обязательны, поэтому кандидатов не урезаем
+                Map<Long, Double> matches = match(token, Integer.MAX_VALUE);
+                if (matches.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                double idf = Math.log(1.0 + (double) itemTokens.size() / matches.size());
+                if (scores == null) {
+                    scores = new HashMap<>();
+                    for (Map.Entry<Long, Double> e : matches.entrySet()) {
+                        scores.put(e.getKey(), e.getValue() * idf);
+                    }
+                } else {
+                    Map<Long, Double> next = new HashMap<>();
+                    for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                        Double weight = matches.get(e.getKey());
+                        if (weight != null) {
+                            next.put(e.getKey(), e.getValue() + weight * idf);
+                        }
+                    }
+                    scores = next;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top(scores, pageable);
+    }
+
+    @Override
+    public List<Long> fuzzySearch(String text, Pageable pageable) {
+        int limit = candidateLimit(pageable);
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String token : new LinkedHashSet<>(SearchTokenizer.tokenize(text))) {
+                Map<Long, Double> matches = new HashMap<>();
+                similarTokens(token).forEach((similar, similarity) -> postings.get(similar)
+                        .forEachBest(limit, (itemId, weight) -> matches.merge(itemId, weight * similarity, Math::max)));
+                matches.forEach((itemId, score) -> scores.merge(itemId, score, Double::sum));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top(scores, pageable);
+    }
+
+    private Map<String, Double> similarTokens(String token) {
+        Set<String> queryTrigrams = SearchTokenizer.trigrams(token);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            for (String candidate : trigramTokens.getOrDefault(trigram, Collections.emptySet())) {
+                shared.merge(candidate, 1, Integer::sum);
+            }
+        }
+        Map<String, Double> result = new HashMap<>();
+        shared.forEach((candidate, count) -> {
+            int union = queryTrigrams.size() + SearchTokenizer.trigrams(candidate).size() - count;
+            double similarity = (double) count / union;
+            if (similarity >= fuzzyThreshold) {
+                result.put(candidate, similarity);
+            }
+        });
+        return result;
+    }
+
+    private void addTrigrams(String token) {
+        for (String trigram : SearchTokenizer.trigrams(token)) {
+            trigramTokens.computeIfAbsent(trigram, t -> new HashSet<>()).add(token);
+        }
+    }
+
+    private void removeTrigrams(String token) {
+        for (String trigram : SearchTokenizer.trigrams(token)) {
+            Set<String> tokens = trigramTokens.get(trigram);
+            tokens.remove(token);
+            if (tokens.isEmpty()) {
+                trigramTokens.remove(trigram);
+            }
+        }
+    }
+
+    // Оценка предмета по слову - максимум по токенам, поэтому limit лучших у каждого токена
+    // не теряют ни одного из limit лучших по слову
+    private Map<Long, Double> match(String prefix, int limit) {
+        Map<Long, Double> matches = new HashMap<>();
+        for (Map.Entry<String, Postings> e : postings.subMap(prefix, prefix + Character.MAX_VALUE).entrySet()) {
+            double factor = e.getKey().equals(prefix) ? 1.0 : PREFIX_PENALTY;
+            e.getValue().forEachBest(limit, (itemId, weight) -> matches.merge(itemId, weight * factor, Math::max));
+        }
+        return matches;
+    }
+
+    private int candidateLimit(Pageable pageable) {
+        return (int) Math.min(Integer.MAX_VALUE,
+                Math.max(candidatesPerToken, pageable.getOffset() + pageable.getPageSize()));
+    }
+
+    // Куча из offset + size лучших вместо сортировки всех кандидатов
+    private static List<Long> top(Map<Long, Double> scores, Pageable pageable) {
+        Comparator<Map.Entry<Long, Double>> order = Map.Entry.<Long, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        long wanted = pageable.getOffset() + pageable.getPageSize();
+        PriorityQueue<Map.Entry<Long, Double>> worstFirst =
+                new PriorityQueue<>((int) Math.min(wanted, scores.size()) + 1, order.reversed());
+        for (Map.Entry<Long, Double> e : scores.entrySet()) {
+            if (worstFirst.size() < wanted) {
+                worstFirst.add(e);
+            } else if (order.compare(e, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(e);
+            }
+        }
+        List<Map.Entry<Long, Double>> best = new ArrayList<>(worstFirst);
+        best.sort(order);
+        return best.stream()
+                .skip(pageable.getOffset())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    // Предметы токена по убыванию веса, при равном весе - по возрастанию id, как в выдаче
+    private static class Postings {
+        private final NavigableMap<Double, NavigableSet<Long>> byWeight = new TreeMap<>(Comparator.reverseOrder());
+        private int size;
+
+        void add(Long itemId, double weight) {
+            byWeight.computeIfAbsent(weight, w -> new TreeSet<>()).add(itemId);
+            size++;
+        }
+
+        void remove(Long itemId, double weight) {
+            NavigableSet<Long> items = byWeight.get(weight);
+            items.remove(itemId);
+            if (items.isEmpty()) {
+                byWeight.remove(weight);
+            }
+            size--;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void forEachBest(int limit, BiConsumer<Long, Double> action) {
+            int left = limit;
+            for (Map.Entry<Double, NavigableSet<Long>> e : byWeight.entrySet()) {
+                for (Long itemId : e.getValue()) {
+                    if (left-- == 0) {
+                        return;
+                    }
+                    action.accept(itemId, e.getKey());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.Item;
+
+import java.util.List;
+
+public interface ItemSearchIndex {
+
+    void index(Item item);
+
+    List<Long> search(String text, Pageable pageable);
+
+    List<Long> fuzzySearch(String text, Pageable pageable);
+
+    List<Long> match(String text, Pageable pageable);
+}
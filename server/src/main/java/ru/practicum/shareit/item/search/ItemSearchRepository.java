@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import ru.practicum.shareit.item.Item;
+
+import java.util.List;
+
+// Запросы на функциях PostgreSQL, их вызывает только PostgresItemSearchIndex.
+// Хранилище в памяти эти методы не реализует: поиск там обслуживает InMemoryItemSearchIndex
+public interface ItemSearchRepository extends Repository<Item, Long> {
+
+    @Query(value = "select i.id from items i " +
+            "where i.available = true " +
+            "and to_tsvector('simple', coalesce(i.name, '') || ' ' || coalesce(i.description, '')) " +
+            "@@ to_tsquery('simple', ?1) " +
+            "order by ts_rank(setweight(to_tsvector('simple', coalesce(i.name, '')), 'A') || " +
+            "setweight(to_tsvector('simple', coalesce(i.description, '')), 'B'), to_tsquery('simple', ?1)) desc, " +
+            "i.id " +
+            "limit ?2 offset ?3", nativeQuery = true)
+    List<Number> searchFullText(String query, int limit, long offset);
+
+    @Query(value = "select set_config('pg_trgm.word_similarity_threshold', ?1, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(String threshold);
+
+    @Query(value = "select i.id from items i " +
+            "where i.available = true " +
+            "and shareit_translit(?1) <% shareit_translit(coalesce(i.name, '') || ' ' || coalesce(i.description, '')) " +
+            "order by word_similarity(shareit_translit(?1), " +
+            "shareit_translit(coalesce(i.name, '') || ' ' || coalesce(i.description, ''))) desc, " +
+            "i.id " +
+            "limit ?2 offset ?3", nativeQuery = true)
+    List<Number> fuzzySearch(String text, int limit, long offset);
+}
@@ -0,0 +1,283 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ItemSuggestIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final Node root = new Node("");
+    private final Map<Long, String> itemKeys = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+        Page<Item> page;
+        do {
+            page = itemRepository.findAll(pageable);
+            page.forEach(this::index);
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        log.info("Индекс подсказок построен, предметов: {}", itemKeys.size());
+    }
+
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            String oldKey = itemKeys.remove(item.getId());
+            if (oldKey != null) {
+                remove(oldKey, item.getId());
+            }
+            if (Boolean.TRUE.equals(item.getAvailable()) && item.getName() != null && !item.getName().isBlank()) {
+                String key = toKey(item.getName());
+                insert(key, item.getId(), item.getName());
+                itemKeys.put(item.getId(), key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int size) {
+        String key = toKey(prefix);
+        if (key.isEmpty() || size <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int depth = 0;
+            while (depth < key.length()) {
+                node = node.child(key.charAt(depth));
+                if (node == null) {
+                    return Collections.emptyList();
+                }
+                int common = commonPrefix(node.label, key, depth);
+                if (depth + common == key.length()) {
+                    break;
+                }
+                if (common < node.label.length()) {
+                    return Collections.emptyList();
+                }
+                depth += common;
+            }
+            Set<String> result = new LinkedHashSet<>();
+            collect(node, result, size);
+            return new ArrayList<>(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(Node node, Set<String> result, int size) {
+        for (int i = 0; i < node.names.length; i++) {
+            if (result.size() == size) {
+                return;
+            }
+            result.add(node.names[i]);
+        }
+        for (Node child : node.children) {
+            if (result.size() == size) {
+                return;
+            }
+            collect(child, result, size);
+        }
+    }
+
+    private void insert(String key, long itemId, String name) {
+        Node node = root;
+        int depth = 0;
+        while (depth < key.length()) {
+            Node child = node.child(key.charAt(depth));
+            if (child == null) {
+                child = new Node(key.substring(depth));
+                node.addChild(child);
+                node = child;
+                break;
+            }
+            int common = commonPrefix(child.label, key, depth);
+            if (common < child.label.length()) {
+                // Ребро расходится с ключом посередине: делим его промежуточным узлом
+                Node middle = new Node(child.label.substring(0, common));
+                node.replaceChild(child, middle);
+                child.label = child.label.substring(common);
+                middle.addChild(child);
+                child = middle;
+            }
+            node = child;
+            depth += common;
+        }
+        node.addName(itemId, name);
+    }
+
+    private void remove(String key, long itemId) {
+        Node parent = null;
+        Node node = root;
+        int depth = 0;
+        while (depth < key.length()) {
+            parent = node;
+            node = node.child(key.charAt(depth));
+            if (node == null) {
+                return;
+            }
+            depth += node.label.length();
+        }
+        node.removeName(itemId);
+        if (parent == null || node.names.length > 0) {
+            return;
+        }
+        // Пустые листья удаляются, а узлы с единственным ребенком сливаются с ним
+        if (node.children.length == 0) {
+            parent.removeChild(node);
+            if (parent != root && parent.names.length == 0 && parent.children.length == 1) {
+                parent.mergeWithOnlyChild();
+            }
+        } else if (node.children.length == 1) {
+            node.mergeWithOnlyChild();
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static String toKey(String name) {
+        return name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    // Узел сжатого префиксного дерева: ребро к узлу хранит строку целиком, а не один символ.
+    // Дети лежат в массивах, упорядоченных по первому символу ребра, имена - по id предмета
+    private static class Node {
+        private static final char[] NO_CHARS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final long[] NO_IDS = new long[0];
+        private static final String[] NO_NAMES = new String[0];
+
+        private String label;
+        private char[] firstChars = NO_CHARS;
+        private Node[] children = NO_CHILDREN;
+        private long[] ids = NO_IDS;
+        private String[] names = NO_NAMES;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(firstChars, c);
+            return i < 0 ? null : children[i];
+        }
+
+        void addChild(Node child) {
+            int i = -Arrays.binarySearch(firstChars, child.label.charAt(0)) - 1;
+            firstChars = insertAt(firstChars, i, child.label.charAt(0));
+            children = insertAt(children, i, child);
+        }
+
+        void replaceChild(Node child, Node replacement) {
+            children[Arrays.binarySearch(firstChars, child.label.charAt(0))] = replacement;
+        }
+
+        void removeChild(Node child) {
+            int i = Arrays.binarySearch(firstChars, child.label.charAt(0));
+            firstChars = removeAt(firstChars, i);
+            children = removeAt(children, i);
+        }
+
+        void mergeWithOnlyChild() {
+            Node child = children[0];
+            label = label + child.label;
+            firstChars = child.firstChars;
+            children = child.children;
+            ids = child.ids;
+            names = child.names;
+        }
+
+        void addName(long itemId, String name) {
+            int i = Arrays.binarySearch(ids, itemId);
+            if (i >= 0) {
+                names[i] = name;
+                return;
+            }
+            i = -i - 1;
+            ids = insertAt(ids, i, itemId);
+            names = insertAt(names, i, name);
+        }
+
+        void removeName(long itemId) {
+            int i = Arrays.binarySearch(ids, itemId);
+            if (i >= 0) {
+                ids = removeAt(ids, i);
+                names = removeAt(names, i);
+            }
+        }
+
+        private static char[] insertAt(char[] array, int i, char value) {
+            char[] result = new char[array.length + 1];
+            System.arraycopy(array, 0, result, 0, i);
+            result[i] = value;
+            System.arraycopy(array, i, result, i + 1, array.length - i);
+            return result;
+        }
+
+        private static long[] insertAt(long[] array, int i, long value) {
+            long[] result = new long[array.length + 1];
+            System.arraycopy(array, 0, result, 0, i);
+            result[i] = value;
+            System.arraycopy(array, i, result, i + 1, array.length - i);
+            return result;
+        }
+
+        private static <T> T[] insertAt(T[] array, int i, T value) {
+            T[] result = Arrays.copyOf(array, array.length + 1);
+            System.arraycopy(array, i, result, i + 1, array.length - i);
+            result[i] = value;
+            return result;
+        }
+
+        private static char[] removeAt(char[] array, int i) {
+            char[] result = new char[array.length - 1];
+            System.arraycopy(array, 0, result, 0, i);
+            System.arraycopy(array, i + 1, result, i, array.length - i - 1);
+            return result;
+        }
+
+        private static long[] removeAt(long[] array, int i) {
+            long[] result = new long[array.length - 1];
+            System.arraycopy(array, 0, result, 0, i);
+            System.arraycopy(array, i + 1, result, i, array.length - i - 1);
+            return result;
+        }
+
+        private static <T> T[] removeAt(T[] array, int i) {
+            T[] result = Arrays.copyOf(array, array.length - 1);
+            System.arraycopy(array, i + 1, result, i, array.length - i - 1);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.Item;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnExpression("'${shareit.search.backend:postgres}' == 'postgres' " +
+        "and '${shareit.storage.backend:jpa}' != 'memory'")
+public class PostgresItemSearchIndex implements ItemSearchIndex {
+
+    private final ItemSearchRepository searchRepository;
+    private final double fuzzyThreshold;
+
+    public PostgresItemSearchIndex(ItemSearchRepository searchRepository,
+                                   @Value("${shareit.search.fuzzy.threshold}") double fuzzyThreshold) {
+        this.searchRepository = searchRepository;
+        this.fuzzyThreshold = fuzzyThreshold;
+    }
+
+    @Override
+    public void index(Item item) {
+        // GIN-индекс по tsvector обновляется самой базой
+    }
+
+    @Override
+    public List<Long> search(String text, Pageable pageable) {
+        return searchAll(SearchTokenizer.tokenize(text), pageable);
+    }
+
+    // Короткие и служебные слова отброшены, поэтому оставшиеся обязательны, как в search
+    @Override
+    public List<Long> match(String text, Pageable pageable) {
+        return searchAll(SearchTokenizer.significant(text), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<Long> fuzzySearch(String text, Pageable pageable) {
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        searchRepository.setWordSimilarityThreshold(String.valueOf(fuzzyThreshold));
+        return searchRepository.fuzzySearch(String.join(" ", tokens), pageable.getPageSize(), pageable.getOffset())
+                .stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> searchAll(List<String> tokens, Pageable pageable) {
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String query = tokens.stream()
+                .map(t -> t + ":*")
+                .collect(Collectors.joining(" & "));
+        return searchRepository.searchFullText(query, pageable.getPageSize(), pageable.getOffset()).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+    }
+}
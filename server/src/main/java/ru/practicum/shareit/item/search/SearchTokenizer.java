@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+public class SearchTokenizer {
+
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String TRANSLIT_FROM = "абвгдеёжзийклмнопрстуфхцчшщыэюяъь";
+    private static final String TRANSLIT_TO = "abvgdeejziiklmnoprstufhccssyeua";
+    private static final int MIN_SIGNIFICANT_LENGTH = 3;
+    // Служебные слова и обороты, с которых обычно начинается запрос вещи
+    private static final Set<String> STOP_WORDS = Set.of(
+            "для", "что", "как", "это", "или", "при", "без", "под", "над", "все", "всё", "его", "она", "они",
+            "мне", "меня", "нам", "вас", "так", "там", "где", "чтобы", "если", "только", "очень", "кто", "есть",
+            "может", "можно", "нужен", "нужна", "нужно", "нужны", "ищу", "хочу", "пожалуйста", "одолжить",
+            "взять", "напрокат",
+            "the", "and", "for", "with", "need", "want", "please", "any", "who", "has");
+
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : DELIMITER.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Слова, которые должны найтись в вещи для запроса: без коротких и служебных
+    public static List<String> significant(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : tokenize(text)) {
+            if (token.length() >= MIN_SIGNIFICANT_LENGTH && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public static String transliterate(String token) {
+        StringBuilder sb = new StringBuilder(token.length());
+        for (char c : token.toCharArray()) {
+            int i = TRANSLIT_FROM.indexOf(c);
+            if (i < 0) {
+                sb.append(c);
+            } else if (i < TRANSLIT_TO.length()) {
+                sb.append(TRANSLIT_TO.charAt(i));
+            }
+        }
+        return sb.toString();
+    }
+
+    public static Set<String> trigrams(String token) {
+        String padded = "  " + transliterate(token) + " ";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.requests;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.InMemoryRepository;
+import ru.practicum.shareit.item.InMemoryItemRepository;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@Primary
+@ConditionalOnProperty(name = "shareit.storage.backend", havingValue = "memory")
+public class InMemoryItemRequestMatchRepository extends InMemoryRepository<ItemRequestMatch>
+        implements ItemRequestMatchRepository {
+
+    private final InMemoryItemRequestRepository itemRequestRepository;
+    private final InMemoryItemRepository itemRepository;
+
+    public InMemoryItemRequestMatchRepository(InMemoryItemRequestRepository itemRequestRepository,
+                                              InMemoryItemRepository itemRepository) {
+        super(ItemRequestMatch.class);
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public List<ItemRequestMatch> findByRequestIds(Collection<Long> requestIds) {
+        Set<Long> ids = new HashSet<>(requestIds);
+        List<ItemRequestMatch> matches = findAllMatching(m -> ids.contains(m.getRequest().getId()));
+        matches.sort(Comparator.comparingLong((ItemRequestMatch m) -> m.getRequest().getId())
+                .thenComparingInt(ItemRequestMatch::getRank));
+        return matches;
+    }
+
+    @Override
+    public void deleteByRequest_Id(Long requestId) {
+        findAllMatching(m -> m.getRequest().getId() == requestId).forEach(this::delete);
+    }
+
+    @Override
+    public long sumItemVersionsByRequestId(Long requestId) {
+        return findAllMatching(m -> m.getRequest().getId() == requestId).stream()
+                .mapToLong(m -> m.getItem().getVersion() + 1)
+                .sum();
+    }
+
+    @Override
+    protected long getId(ItemRequestMatch match) {
+        return match.getId() == null ? 0 : match.getId();
+    }
+
+    @Override
+    protected void setId(ItemRequestMatch match, long id) {
+        match.setId(id);
+    }
+
+    @Override
+    protected Long getVersion(ItemRequestMatch match) {
+        return null;
+    }
+
+    @Override
+    protected void setVersion(ItemRequestMatch match, Long version) {
+    }
+
+    @Override
+    protected ItemRequestMatch copy(ItemRequestMatch match) {
+        return new ItemRequestMatch(match.getId(), itemRequestRepository.resolve(match.getRequest()),
+                itemRepository.resolve(match.getItem()), match.getRank());
+    }
+}
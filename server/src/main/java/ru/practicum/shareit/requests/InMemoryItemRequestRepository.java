@@ -0,0 +1,80 @@
+package ru.practicum.shareit.requests;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.InMemoryRepository;
+import ru.practicum.shareit.user.InMemoryUserRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@Primary
+@ConditionalOnProperty(name = "shareit.storage.backend", havingValue = "memory")
+public class InMemoryItemRequestRepository extends InMemoryRepository<ItemRequest> implements ItemRequestRepository {
+
+    private final InMemoryUserRepository userRepository;
+
+    public InMemoryItemRequestRepository(InMemoryUserRepository userRepository) {
+        super(ItemRequest.class);
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Page<ItemRequest> findByRequester_Id(Long userId, Pageable pageable) {
+        return findPageMatching(r -> r.getRequester().getId() == userId, pageable);
+    }
+
+    @Override
+    public List<ItemRequest> findByRequester_Id(Long userId, Sort sort) {
+        List<ItemRequest> requests = findAllMatching(r -> r.getRequester().getId() == userId);
+        requests.sort(comparator(sort));
+        return requests;
+    }
+
+    @Override
+    public Page<ItemRequest> getAllByRequester_IdNot(Long userId, Pageable pageable) {
+        return findPageMatching(r -> r.getRequester().getId() != userId, pageable);
+    }
+
+    @Override
+    public Optional<ItemRequest> findByIdAndIncrementVersion(Long requestId) {
+        incrementVersion(requestId);
+        return findById(requestId);
+    }
+
+    @Override
+    public Optional<Long> findVersionById(Long requestId) {
+        return findById(requestId).map(ItemRequest::getVersion);
+    }
+
+    @Override
+    protected long getId(ItemRequest request) {
+        return request.getId();
+    }
+
+    @Override
+    protected void setId(ItemRequest request, long id) {
+        request.setId(id);
+    }
+
+    @Override
+    protected Long getVersion(ItemRequest request) {
+        return request.getVersion();
+    }
+
+    @Override
+    protected void setVersion(ItemRequest request, Long version) {
+        request.setVersion(version);
+    }
+
+    @Override
+    protected ItemRequest copy(ItemRequest request) {
+        return new ItemRequest(request.getId(), request.getDescription(),
+                userRepository.resolve(request.getRequester()), request.getCreated(), request.getVersion());
+    }
+}
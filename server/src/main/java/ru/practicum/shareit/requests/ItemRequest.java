@@ -2,12 +2,16 @@ package ru.practicum.shareit.requests;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.user.User;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "item_requests")
 @Data
 @AllArgsConstructor
@@ -20,6 +24,8 @@ public class ItemRequest {
     @JoinColumn(name = "requester_id")
     private User requester;
     private LocalDateTime created;
+    @Version
+    private Long version;
 
     public ItemRequest() {
 
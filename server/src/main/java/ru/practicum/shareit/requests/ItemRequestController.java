@@ -2,6 +2,7 @@ package ru.practicum.shareit.requests;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.exceptions.IncorrectParameterException;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.dto.ItemRequestExtDto;
@@ -22,8 +23,16 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public Collection<ItemRequestExtDto> getForUser(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemRequestService.getForUser(userId);
+    public Collection<ItemRequestExtDto> getForUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @RequestParam(defaultValue = "0") Integer from,
+                                                    @RequestParam(required = false) Integer size) {
+        if (from < 0) {
+            throw new IncorrectParameterException("from", from.toString());
+        }
+        if (size != null && size <= 0) {
+            throw new IncorrectParameterException("size", size.toString());
+        }
+        return itemRequestService.getForUser(userId, from, size);
     }
 
     @GetMapping("/all")
@@ -41,7 +50,12 @@ public class ItemRequestController {
 
     @GetMapping("/{requestId}")
     public ItemRequestExtDto getById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                     @PathVariable Long requestId) {
+                                     @PathVariable Long requestId,
+                                     WebRequest request) {
+        String eTag = itemRequestService.getETag(userId, requestId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
         return itemRequestService.getById(userId, requestId);
     }
 
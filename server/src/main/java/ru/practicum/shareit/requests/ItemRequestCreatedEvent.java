@@ -0,0 +1,12 @@
+package ru.practicum.shareit.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemRequestCreatedEvent {
+    private long requestId;
+    private long requesterId;
+    private String description;
+}
@@ -25,7 +25,8 @@ public class ItemRequestMapper {
                 itemRequestDto.getId(),
                 itemRequestDto.getDescription(),
                 null,
-                LocalDateTime.now()
+                LocalDateTime.now(),
+                null
         );
     }
 
@@ -35,6 +36,7 @@ public class ItemRequestMapper {
                 itemRequest.getDescription(),
                 itemRequest.getRequester().getId(),
                 itemRequest.getCreated(),
+                Collections.emptyList(),
                 Collections.emptyList()
         );
     }
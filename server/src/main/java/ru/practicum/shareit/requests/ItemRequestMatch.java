@@ -0,0 +1,28 @@
+package ru.practicum.shareit.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.item.Item;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "item_request_matches")
+@Data
+@AllArgsConstructor
+public class ItemRequestMatch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "request_id")
+    private ItemRequest request;
+    @ManyToOne()
+    @JoinColumn(name = "item_id")
+    private Item item;
+    private int rank;
+
+    public ItemRequestMatch() {
+
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.requests;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemRequestMatchRepository extends JpaRepository<ItemRequestMatch, Long> {
+
+    @EntityGraph(attributePaths = {"item", "item.request"})
+    @Query(" select m from ItemRequestMatch m " +
+            "where m.request.id in ?1 " +
+            "order by m.request.id, m.rank")
+    List<ItemRequestMatch> findByRequestIds(Collection<Long> requestIds);
+
+    void deleteByRequest_Id(Long requestId);
+
+    @Query("select coalesce(sum(m.item.version + 1), 0) from ItemRequestMatch m where m.request.id = ?1")
+    long sumItemVersionsByRequestId(Long requestId);
+
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.requests;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Подбор вещей под новый запрос идет после коммита в отдельном потоке, не задерживая POST /requests
+@Component
+@Slf4j
+public class ItemRequestMatcher {
+
+    private final ItemSearchIndex searchIndex;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRequestMatchRepository matchRepository;
+    private final int topK;
+
+    public ItemRequestMatcher(ItemSearchIndex searchIndex,
+                              ItemRepository itemRepository,
+                              ItemRequestRepository itemRequestRepository,
+                              ItemRequestMatchRepository matchRepository,
+                              @Value("${shareit.requests.matching.top-k}") int topK) {
+        this.searchIndex = searchIndex;
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.matchRepository = matchRepository;
+        this.topK = topK;
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onItemRequestCreated(ItemRequestCreatedEvent event) {
+        // Берем с запасом: собственные вещи автора запроса отбрасываются
+        List<Long> candidateIds = searchIndex.match(event.getDescription(), PageRequest.of(0, topK * 2));
+        if (candidateIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Item> items = itemRepository.findAllById(candidateIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        ItemRequest request = itemRequestRepository.findByIdAndIncrementVersion(event.getRequestId()).orElse(null);
+        if (request == null) {
+            return;
+        }
+        matchRepository.deleteByRequest_Id(event.getRequestId());
+        int rank = 0;
+        for (Long itemId : candidateIds) {
+            Item item = items.get(itemId);
+            if (item == null || item.getOwner().getId() == event.getRequesterId()) {
+                continue;
+            }
+            matchRepository.save(new ItemRequestMatch(null, request, item, rank++));
+            if (rank == topK) {
+                break;
+            }
+        }
+        log.info("Для запроса {} подобрано вещей: {}", event.getRequestId(), rank);
+    }
+}
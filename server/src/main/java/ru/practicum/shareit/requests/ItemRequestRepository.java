@@ -3,25 +3,29 @@ package ru.practicum.shareit.requests;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
-import ru.practicum.shareit.exceptions.ItemRequestNotFoundException;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 
-import javax.persistence.EntityNotFoundException;
+import javax.persistence.LockModeType;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findByRequester_Id(Long userId);
+    Page<ItemRequest> findByRequester_Id(Long userId, Pageable pageable);
+
+    List<ItemRequest> findByRequester_Id(Long userId, Sort sort);
 
     Page<ItemRequest> getAllByRequester_IdNot(Long userId, Pageable pageable);
 
-    default void checkItemRequestId(Long itemRequestId) {
-        try {
-            ItemRequest itemRequest = getReferenceById(itemRequestId);
-            ItemRequestMapper.toItemRequestDto(itemRequest);
-        } catch (EntityNotFoundException ex) {
-            throw new ItemRequestNotFoundException("Запрос c таким id не найдено.");
-        }
-    }
+    // Версия растет при коммите и только у этой записи, не сбрасывая остальной регион кэша
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select r from ItemRequest r where r.id = ?1")
+    Optional<ItemRequest> findByIdAndIncrementVersion(Long requestId);
+
+    @Query("select r.version from ItemRequest r where r.id = ?1")
+    Optional<Long> findVersionById(Long requestId);
 
 }
@@ -9,10 +9,12 @@ public interface ItemRequestService {
 
     ItemRequestDto create(Long userId, ItemRequestDto itemRequestDto);
 
-    Collection<ItemRequestExtDto> getForUser(Long userId);
+    Collection<ItemRequestExtDto> getForUser(Long userId, Integer from, Integer size);
 
     Collection<ItemRequestExtDto> getAll(Long userId, Integer from, Integer size);
 
+    String getETag(Long userId, Long requestId);
+
     ItemRequestExtDto getById(Long userId, Long requestId);
 
 }
@@ -2,16 +2,19 @@ package ru.practicum.shareit.requests;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.ExistenceChecker;
 import ru.practicum.shareit.exceptions.UserNotDefinedException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.dto.ItemRequestExtDto;
 import ru.practicum.shareit.user.UserRepository;
@@ -27,53 +30,62 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final ExistenceChecker existenceChecker;
     private final ItemRepository itemRepository;
     private final ItemRequestValidator validator;
+    private final ItemRequestMatchRepository matchRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     @Override
     public ItemRequestDto create(Long userId, ItemRequestDto itemRequestDto) {
         isUserDefined(userId);
-        userRepository.checkUserId(userId);
+        existenceChecker.checkUser(userId);
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto);
         validator.validateItemRequest(itemRequest);
         itemRequest.setRequester(userRepository.getReferenceById(userId));
-        return ItemRequestMapper.toItemRequestDto(itemRequestRepository.save(itemRequest));
+        itemRequest = itemRequestRepository.save(itemRequest);
+        eventPublisher.publishEvent(
+                new ItemRequestCreatedEvent(itemRequest.getId(), userId, itemRequest.getDescription()));
+        return ItemRequestMapper.toItemRequestDto(itemRequest);
     }
 
     @Override
-    public Collection<ItemRequestExtDto> getForUser(Long userId) {
+    public Collection<ItemRequestExtDto> getForUser(Long userId, Integer from, Integer size) {
         isUserDefined(userId);
-        userRepository.checkUserId(userId);
-        List<ItemRequestExtDto> result = new ArrayList<>();
-        List<ItemRequest> requests = itemRequestRepository.findByRequester_Id(userId);
-        if (requests.isEmpty()) {
-            return Collections.emptyList();
+        existenceChecker.checkUser(userId);
+        Sort sortByCreated = Sort.by(Sort.Direction.ASC, "created");
+        // Без size отдаются все запросы пользователя, как до появления постраничного вывода
+        if (size == null) {
+            return createItemRequestExtDtos(itemRequestRepository.findByRequester_Id(userId, sortByCreated));
         }
-        for (ItemRequest r : requests) {
-            result.add(createItemRequestExtDto(r));
-        }
-        result.sort(Comparator.comparing(ItemRequestExtDto::getCreated));
-        return result;
+        Pageable pageable = PageRequest.of(from, size, sortByCreated);
+        Page<ItemRequest> itemRequestPage = itemRequestRepository.findByRequester_Id(userId, pageable);
+        return createItemRequestExtDtos(itemRequestPage.getContent());
     }
 
     @Override
     public Collection<ItemRequestExtDto> getAll(Long userId, Integer from, Integer size) {
-        List<ItemRequestExtDto> result = new ArrayList<>();
         Sort sortByCreated = Sort.by(Sort.Direction.DESC, "created");
         Pageable pageable = PageRequest.of(from, size, sortByCreated);
         Page<ItemRequest> itemRequestPage = itemRequestRepository.getAllByRequester_IdNot(userId, pageable);
-        for (ItemRequest r : itemRequestPage.getContent()) {
+        return createItemRequestExtDtos(itemRequestPage.getContent());
+    }
 
-            result.add(createItemRequestExtDto(r));
-        }
-        return result;
+    @Override
+    public String getETag(Long userId, Long requestId) {
+        existenceChecker.checkUser(userId);
+        return itemRequestRepository.findVersionById(requestId)
+                .map(version -> "request-" + requestId + "-" + version
+                        + "-" + itemRepository.sumVersionsByRequestId(requestId)
+                        + "-" + matchRepository.sumItemVersionsByRequestId(requestId))
+                .orElse(null);
     }
 
     @Override
     public ItemRequestExtDto getById(Long userId, Long requestId) {
-        itemRequestRepository.checkItemRequestId(requestId);
-        userRepository.checkUserId(userId);
+        existenceChecker.checkItemRequest(requestId);
+        existenceChecker.checkUser(userId);
         ItemRequest itemRequest = itemRequestRepository.getReferenceById(requestId);
         return createItemRequestExtDto(itemRequest);
     }
@@ -81,15 +93,46 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private ItemRequestExtDto createItemRequestExtDto(ItemRequest request) {
         ItemRequestExtDto itemRequestExtDto = ItemRequestMapper.toItemRequestExtDto(request);
         List<Item> items = itemRepository.findByRequest_Id(request.getId());
-        if (items.isEmpty()) {
-            return itemRequestExtDto;
+        if (!items.isEmpty()) {
+            itemRequestExtDto.setItems(items.stream()
+                    .map(ItemMapper::toItemDto)
+                    .collect(Collectors.toList()));
         }
-        itemRequestExtDto.setItems(items.stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList()));
+        itemRequestExtDto.setSuggestedItems(findSuggestedItems(List.of(request.getId()))
+                .getOrDefault(request.getId(), Collections.emptyList()));
         return itemRequestExtDto;
     }
 
+    // Вещи для всей страницы запросов загружаются одним запросом
+    private List<ItemRequestExtDto> createItemRequestExtDtos(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDto>> itemsByRequest = itemRepository.findByRequest_IdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(i -> i.getRequest().getId(),
+                        Collectors.mapping(ItemMapper::toItemDto, Collectors.toList())));
+        Map<Long, List<ItemDto>> suggestedByRequest = findSuggestedItems(requestIds);
+        List<ItemRequestExtDto> result = new ArrayList<>();
+        for (ItemRequest r : requests) {
+            ItemRequestExtDto itemRequestExtDto = ItemRequestMapper.toItemRequestExtDto(r);
+            itemRequestExtDto.setItems(itemsByRequest.getOrDefault(r.getId(), Collections.emptyList()));
+            itemRequestExtDto.setSuggestedItems(suggestedByRequest.getOrDefault(r.getId(), Collections.emptyList()));
+            result.add(itemRequestExtDto);
+        }
+        return result;
+    }
+
+    // Вещи, ставшие недоступными после подбора, не предлагаются
+    private Map<Long, List<ItemDto>> findSuggestedItems(List<Long> requestIds) {
+        return matchRepository.findByRequestIds(requestIds).stream()
+                .filter(m -> Boolean.TRUE.equals(m.getItem().getAvailable()))
+                .collect(Collectors.groupingBy(m -> m.getRequest().getId(),
+                        Collectors.mapping(m -> ItemMapper.toItemDto(m.getItem()), Collectors.toList())));
+    }
+
     private void isUserDefined(Long userId) {
         if (userId == null) {
             log.warn("Пользователь не определен");
@@ -15,4 +15,5 @@ public class ItemRequestExtDto {
     private long requesterId;
     private LocalDateTime created;
     private List<ItemDto> items;
+    private List<ItemDto> suggestedItems;
 }
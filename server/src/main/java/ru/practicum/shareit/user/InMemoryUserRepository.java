@@ -1,66 +1,72 @@
 package ru.practicum.shareit.user;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.InMemoryRepository;
 import ru.practicum.shareit.exceptions.UserAlreadyExistsException;
-import ru.practicum.shareit.exceptions.UserNotFoundException;
 
-import java.util.Collection;
-import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
-@Component("inMemoryUserRepository")
+@Component
+@Primary
+@ConditionalOnProperty(name = "shareit.storage.backend", havingValue = "memory")
 @Slf4j
-@RequiredArgsConstructor
-public class InMemoryUserRepository {
+public class InMemoryUserRepository extends InMemoryRepository<User> implements UserRepository {
 
-    private final HashMap<Long, User> users = new HashMap<>();
-    private long id = 1;
+    // Вторичный индекс email -> id вместо перебора всех пользователей
+    private final ConcurrentHashMap<String, Long> emails = new ConcurrentHashMap<>();
 
-    private final UserValidator validator;
+    public InMemoryUserRepository() {
+        super(User.class);
+    }
 
-    public Collection<User> getAll() {
-        return users.values();
+    @Override
+    public Optional<Long> findVersionById(Long userId) {
+        return findById(userId).map(User::getVersion);
     }
 
-    public User get(Long id) {
-        if (!users.containsKey(id)) {
-            log.warn("Пользователь c таким id не найден.");
-            throw new UserNotFoundException("Пользователь c таким id не найден.");
+    @Override
+    protected void beforeSave(User old, User user) {
+        Long ownerId = emails.putIfAbsent(user.getEmail(), user.getId());
+        if (ownerId != null && ownerId != user.getId()) {
+            log.warn("Пользователь с таким e-mail уже существует");
+            throw new UserAlreadyExistsException("Пользователь с таким e-mail уже существует");
+        }
+        if (old != null && !old.getEmail().equals(user.getEmail())) {
+            emails.remove(old.getEmail(), old.getId());
         }
-        return users.get(id);
     }
 
-    public User create(User user) {
-        validator.validateUser(user);
-        isEmailExists(user.getEmail());
-        user.setId(id++);
-        users.put(user.getId(), user);
-        log.debug("Текущее количество пользователей: {}", users.size());
-        return user;
+    @Override
+    protected void afterDelete(User user) {
+        emails.remove(user.getEmail(), user.getId());
     }
 
-    public void remove(long id) {
-        if (!users.containsKey(id)) {
-            log.warn("Пользователь не найден.");
-            throw new UserNotFoundException("Пользователь не найден.");
-        }
-        users.remove(id);
+    @Override
+    protected long getId(User user) {
+        return user.getId();
     }
 
-    public User update(User user) {
-        validator.validateUser(user);
-        users.put(user.getId(), user);
-        log.debug("Текущее количество пользователей: {}", users.size());
-        return user;
+    @Override
+    protected void setId(User user, long id) {
+        user.setId(id);
     }
 
-    public void isEmailExists(String email) {
-        for (User u : users.values()) {
-            if (u.getEmail().equals(email)) {
-                log.warn("Пользователь с таким e-mail уже существует");
-                throw new UserAlreadyExistsException("Пользователь с таким e-mail уже существует");
-            }
-        }
+    @Override
+    protected Long getVersion(User user) {
+        return user.getVersion();
+    }
+
+    @Override
+    protected void setVersion(User user, Long version) {
+        user.setVersion(version);
+    }
+
+    @Override
+    protected User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail(), user.getVersion());
     }
-}
\ No newline at end of file
+}
@@ -2,10 +2,14 @@ package ru.practicum.shareit.user;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "users")
 @Data
 @AllArgsConstructor
@@ -16,6 +20,8 @@ public class User {
     private long id;
     private String name;
     private String email;
+    @Version
+    private Long version;
 
     public User() {
 
@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -20,7 +21,11 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    public UserDto getUser(@PathVariable Long id) {
+    public UserDto getUser(@PathVariable Long id, WebRequest request) {
+        String eTag = userService.getUserETag(id);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
         return userService.getUser(id);
     }
 
@@ -1,21 +1,12 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
-import ru.practicum.shareit.exceptions.UserNotFoundException;
+import org.springframework.data.jpa.repository.Query;
 
-import javax.persistence.EntityNotFoundException;
+import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
-
-
-    default boolean checkUserId(Long userId) {
-        try {
-            User user = getReferenceById(userId);
-            UserMapper.toUserDto(user);
-        } catch (EntityNotFoundException ex) {
-            throw new UserNotFoundException("Пользователь c таким id не найден.");
-        }
-        return true;
-    }
+    @Query("select u.version from User u where u.id = ?1")
+    Optional<Long> findVersionById(Long userId);
 }
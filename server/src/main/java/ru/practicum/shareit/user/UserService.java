@@ -12,6 +12,8 @@ public interface UserService {
 
     Collection<UserDto> getAll();
 
+    String getUserETag(Long id);
+
     UserDto getUser(Long id);
 
     void delete(Long id);
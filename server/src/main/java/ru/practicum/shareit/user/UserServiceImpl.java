@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.ExistenceChecker;
+import ru.practicum.shareit.common.Transactions;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -17,6 +19,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ExistenceChecker existenceChecker;
     private final UserValidator validator;
 
     @Transactional
@@ -46,6 +49,13 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public String getUserETag(Long id) {
+        return userRepository.findVersionById(id)
+                .map(version -> "user-" + id + "-" + version)
+                .orElse(null);
+    }
+
     @Override
     public UserDto getUser(Long id) {
         try {
@@ -61,5 +71,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public void delete(Long id) {
         userRepository.deleteById(id);
+        // При откате пользователь остается, и вычеркивать его из кэша нельзя
+        Transactions.afterCommit(() -> existenceChecker.userDeleted(id));
     }
 }
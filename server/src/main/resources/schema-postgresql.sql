@@ -0,0 +1,11 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE OR REPLACE FUNCTION shareit_translit(text) RETURNS text AS
+    'select translate(lower($1), ''абвгдеёжзийклмнопрстуфхцчшщыэюяъь'', ''abvgdeejziiklmnoprstufhccssyeua'')'
+    LANGUAGE sql IMMUTABLE;
+
+CREATE INDEX IF NOT EXISTS IX_ITEM_FULL_TEXT ON items
+    USING GIN (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, '')));
+
+CREATE INDEX IF NOT EXISTS IX_ITEM_TRIGRAM ON items
+    USING GIN (shareit_translit(coalesce(name, '') || ' ' || coalesce(description, '')) gin_trgm_ops);
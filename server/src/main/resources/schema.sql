@@ -3,6 +3,7 @@ CREATE TABLE IF NOT EXISTS users
     id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name  VARCHAR(255)                            NOT NULL,
     email VARCHAR(512)                            NOT NULL,
+    version BIGINT                                NOT NULL DEFAULT 0,
     CONSTRAINT pk_user PRIMARY KEY (id),
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
@@ -13,6 +14,7 @@ CREATE TABLE IF NOT EXISTS item_requests
     description  VARCHAR(4000)                           NOT NULL,
     requester_id BIGINT,
     created      TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    version      BIGINT                                  NOT NULL DEFAULT 0,
     CONSTRAINT pk_item_request PRIMARY KEY (id),
     CONSTRAINT FK_ITEM_REQUEST_ON_REQUESTER FOREIGN KEY (requester_id) REFERENCES users (id)
 );
@@ -25,6 +27,7 @@ CREATE TABLE IF NOT EXISTS items
     available   BOOLEAN,
     owner_id    BIGINT                                  NOT NULL,
     request_id  BIGINT,
+    version     BIGINT                                  NOT NULL DEFAULT 0,
     CONSTRAINT pk_item PRIMARY KEY (id),
     CONSTRAINT FK_ITEM_ON_OWNER FOREIGN KEY (owner_id) REFERENCES users (id),
     CONSTRAINT FK_ITEM_ON_REQUEST FOREIGN KEY (request_id) REFERENCES item_requests (id),
@@ -39,11 +42,41 @@ CREATE TABLE IF NOT EXISTS bookings
     item_id    BIGINT,
     booker_id  BIGINT,
     status     VARCHAR(20),
+    version    BIGINT                                  NOT NULL DEFAULT 0,
     CONSTRAINT pk_booking PRIMARY KEY (id),
     CONSTRAINT FK_BOOKING_ON_BOOKER FOREIGN KEY (booker_id) REFERENCES users (id),
     CONSTRAINT FK_BOOKING_ON_ITEM FOREIGN KEY (item_id) REFERENCES items (id)
 );
 
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE item_requests ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS IX_BOOKING_ON_ITEM_START ON bookings (item_id, start_date);
+
+CREATE INDEX IF NOT EXISTS IX_BOOKING_ON_ITEM_END ON bookings (item_id, end_date);
+
+CREATE INDEX IF NOT EXISTS IX_BOOKING_ON_STATUS_START ON bookings (status, start_date);
+
+CREATE TABLE IF NOT EXISTS item_request_matches
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    request_id BIGINT                                  NOT NULL,
+    item_id    BIGINT                                  NOT NULL,
+    rank       INT                                     NOT NULL,
+    CONSTRAINT pk_item_request_match PRIMARY KEY (id),
+    CONSTRAINT FK_ITEM_REQUEST_MATCH_ON_REQUEST FOREIGN KEY (request_id) REFERENCES item_requests (id),
+    CONSTRAINT FK_ITEM_REQUEST_MATCH_ON_ITEM FOREIGN KEY (item_id) REFERENCES items (id)
+);
+
+CREATE INDEX IF NOT EXISTS IX_ITEM_REQUEST_MATCH_ON_REQUEST ON item_request_matches (request_id, rank);
+
+CREATE INDEX IF NOT EXISTS IX_ITEM_REQUEST_ON_REQUESTER_CREATED ON item_requests (requester_id, created);
+
 CREATE TABLE IF NOT EXISTS comments
 (
     id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exceptions.BookingOverlapException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-concurrency;LOCK_TIMEOUT=60000")
+class BookingConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int INTERVALS = 10;
+    private static final int ATTEMPTS_PER_INTERVAL = 200;
+    private static final int BOOKERS = 20;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    // Попытки внутри одного дня сдвинуты на 0-2 часа и длятся 20 часов: все они пересекаются между собой
+    // и ни одна не задевает соседний день, поэтому на каждый день должен остаться ровно один победитель
+    @Test
+    void parallelCreatesForOneItemLeaveOneBookingPerInterval() throws Exception {
+        long ownerId = userService.create(new UserDto(0, "owner", "owner@concurrency.test")).getId();
+        long itemId = itemService.create(ownerId,
+                new ItemDto(0, "Дрель", "Ударная дрель", true, null, null)).getId();
+        List<Long> bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookers.add(userService.create(new UserDto(0, "booker" + i, "booker" + i + "@concurrency.test")).getId());
+        }
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < INTERVALS * ATTEMPTS_PER_INTERVAL; i++) {
+            long bookerId = bookers.get(i % BOOKERS);
+            LocalDateTime from = base.plusDays(i % INTERVALS).plusHours(i / INTERVALS % 3);
+            BookingDto booking = new BookingDto(0, from, from.plusHours(20), itemId, bookerId, null);
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    bookingService.create(bookerId, booking);
+                    return true;
+                } catch (BookingOverlapException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int created = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                created++;
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(INTERVALS, created);
+        List<Booking> stored = bookingRepository.findAll().stream()
+                .filter(b -> b.getItem().getId() == itemId)
+                .filter(b -> b.getStatus() == Status.WAITING || b.getStatus() == Status.APPROVED)
+                .sorted(Comparator.comparing(Booking::getStart))
+                .collect(Collectors.toList());
+        assertEquals(INTERVALS, stored.size());
+        for (int i = 1; i < stored.size(); i++) {
+            assertFalse(stored.get(i).getStart().isBefore(stored.get(i - 1).getEnd()),
+                    "Бронирования " + stored.get(i - 1).getId() + " и " + stored.get(i).getId() + " пересекаются");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Планировщик срабатывает через час: задание вызывается из теста напрямую
+@SpringBootTest(properties = {"shareit.booking.expiry.enabled=true", "shareit.booking.expiry.interval=3600000",
+    "shareit.booking.expiry.batch-size=3"})
+class BookingExpiryJobTest {
+
+    @Autowired
+    private BookingExpiryJob job;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void expiresOnlyStartedWaitingBookingsInBatches() {
+        String suffix = UUID.randomUUID().toString();
+        long ownerId = userService.create(new UserDto(0, "owner", "owner-" + suffix + "@expiry.test")).getId();
+        long bookerId = userService.create(new UserDto(0, "booker", "booker-" + suffix + "@expiry.test")).getId();
+        User booker = userRepository.getReferenceById(bookerId);
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> started = new ArrayList<>();
+        List<Long> approved = new ArrayList<>();
+        List<Long> future = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            long itemId = itemService.create(ownerId, new ItemDto(0, "Дрель " + i, "дрель", true, null, null)).getId();
+            Item item = itemRepository.getReferenceById(itemId);
+            started.add(save(item, booker, now.minusHours(i + 1), Status.WAITING));
+            approved.add(save(item, booker, now.minusHours(i + 1).minusDays(10), Status.APPROVED));
+            future.add(save(item, booker, now.plusDays(i + 1), Status.WAITING));
+        }
+        long lagBefore = meterRegistry.timer("shareit.booking.expiry.lag").count();
+
+        job.expire();
+
+        started.forEach(id -> assertEquals(Status.EXPIRED, bookingRepository.findById(id).orElseThrow().getStatus()));
+        approved.forEach(id -> assertEquals(Status.APPROVED, bookingRepository.findById(id).orElseThrow().getStatus()));
+        future.forEach(id -> assertEquals(Status.WAITING, bookingRepository.findById(id).orElseThrow().getStatus()));
+        assertEquals(lagBefore + started.size(), meterRegistry.timer("shareit.booking.expiry.lag").count());
+    }
+
+    private long save(Item item, User booker, LocalDateTime start, Status status) {
+        return bookingRepository.save(new Booking(0, start, start.plusHours(1), item, booker, status, null)).getId();
+    }
+}
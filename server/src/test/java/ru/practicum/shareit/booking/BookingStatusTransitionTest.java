@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exceptions.BookingConflictException;
+import ru.practicum.shareit.exceptions.StatusAlreadyChangedException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingStatusTransitionTest {
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        ownerId = userService.create(new UserDto(0, "owner", "owner-" + suffix + "@transition.test")).getId();
+        bookerId = userService.create(new UserDto(0, "booker", "booker-" + suffix + "@transition.test")).getId();
+        itemId = itemService.create(ownerId, new ItemDto(0, "Палатка", "Палатка на четверых", true, null, null))
+                .getId();
+        start = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    void concurrentDecisionsOnOneBookingHaveSingleWinner() throws Exception {
+        long bookingId = bookingService.create(bookerId,
+                new BookingDto(0, start, start.plusDays(1), itemId, bookerId, null)).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Status>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approve = i % 2 == 0;
+            results.add(executor.submit(() -> {
+                go.await();
+                try {
+                    return bookingService.changeStatus(ownerId, bookingId, approve).getStatus();
+                } catch (BookingConflictException | StatusAlreadyChangedException e) {
+                    return null;
+                }
+            }));
+        }
+        go.countDown();
+        List<Status> decided = new ArrayList<>();
+        for (Future<Status> result : results) {
+            Status status = result.get();
+            if (status != null) {
+                decided.add(status);
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(1, decided.size());
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+        assertEquals(decided.get(0), booking.getStatus());
+        assertEquals(1L, booking.getVersion());
+    }
+
+    @Test
+    void rejectedBookingCannotBeApproved() {
+        long bookingId = bookingService.create(bookerId,
+                new BookingDto(0, start, start.plusDays(1), itemId, bookerId, null)).getId();
+        bookingService.changeStatus(ownerId, bookingId, false);
+
+        assertThrows(StatusAlreadyChangedException.class, () -> bookingService.changeStatus(ownerId, bookingId, true));
+        assertEquals(Status.REJECTED, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+    }
+
+    // Подтверждение отклоненной заявки обошло бы проверку пересечений: место уже занято другой
+    @Test
+    void rejectedBookingCannotTakeSlotOfApprovedOne() {
+        long rejectedId = bookingService.create(bookerId,
+                new BookingDto(0, start, start.plusDays(1), itemId, bookerId, null)).getId();
+        bookingService.changeStatus(ownerId, rejectedId, false);
+        long approvedId = bookingService.create(bookerId,
+                new BookingDto(0, start, start.plusDays(1), itemId, bookerId, null)).getId();
+        bookingService.changeStatus(ownerId, approvedId, true);
+
+        assertThrows(StatusAlreadyChangedException.class,
+                () -> bookingService.changeStatus(ownerId, rejectedId, true));
+        assertEquals(1, bookingRepository.findByItem_IdAndStatusIn(itemId, List.of(Status.APPROVED)).size());
+    }
+
+    @Test
+    void expiredBookingCannotBeApprovedOrRejected() {
+        Booking expired = bookingRepository.save(new Booking(0, start, start.plusDays(1),
+                itemRepository.findById(itemId).orElseThrow(), userRepository.findById(bookerId).orElseThrow(),
+                Status.EXPIRED, null));
+
+        assertThrows(StatusAlreadyChangedException.class,
+                () -> bookingService.changeStatus(ownerId, expired.getId(), true));
+        assertThrows(StatusAlreadyChangedException.class,
+                () -> bookingService.changeStatus(ownerId, expired.getId(), false));
+        assertEquals(Status.EXPIRED, bookingRepository.findById(expired.getId()).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Тот же стресс-тест на хранилище в памяти: вместо блокировки строки БД работает полосатая блокировка предмета
+@TestPropertySource(properties = "shareit.storage.backend=memory")
+class InMemoryBookingConcurrencyTest extends BookingConcurrencyTest {
+}
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Example;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exceptions.UserAlreadyExistsException;
+import ru.practicum.shareit.user.InMemoryUserRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.profiles.active=memory")
+class InMemoryStorageTest {
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void memoryBackendIsSelected() {
+        assertTrue(userRepository instanceof InMemoryUserRepository);
+    }
+
+    @Test
+    void memoryProfileStartsWithoutDataSource() {
+        assertTrue(context.getBeansOfType(DataSource.class).isEmpty());
+    }
+
+    @Test
+    void rollbackUndoesCreatesUpdatesAndDeletes() {
+        long updatedId = userService.create(new UserDto(0, "before", "rollback-updated@memory.test")).getId();
+        long deletedId = userService.create(new UserDto(0, "deleted", "rollback-deleted@memory.test")).getId();
+        long[] createdId = new long[1];
+
+        transactionTemplate.executeWithoutResult(status -> {
+            createdId[0] = userService.create(new UserDto(0, "created", "rollback-created@memory.test")).getId();
+            userService.update(updatedId, new UserDto(0, "after", "rollback-changed@memory.test"));
+            userService.update(updatedId, new UserDto(0, "after twice", null));
+            userService.delete(deletedId);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(userRepository.findById(createdId[0]).isEmpty());
+        User updated = userRepository.findById(updatedId).orElseThrow();
+        assertEquals("before", updated.getName());
+        assertEquals("rollback-updated@memory.test", updated.getEmail());
+        assertEquals(0L, updated.getVersion());
+        assertTrue(userRepository.existsById(deletedId));
+        // Индекс адресов откатился вместе с записями
+        userService.create(new UserDto(0, "created again", "rollback-created@memory.test"));
+        userService.create(new UserDto(0, "changed again", "rollback-changed@memory.test"));
+        assertThrows(UserAlreadyExistsException.class,
+                () -> userService.create(new UserDto(0, "duplicate", "rollback-updated@memory.test")));
+    }
+
+    @Test
+    void findByExampleMatchesSetProperties() {
+        long id = userService.create(new UserDto(0, "example", "example@memory.test")).getId();
+
+        User probe = new User(0, null, "example@memory.test", null);
+        assertEquals(id, userRepository.findOne(Example.of(probe)).orElseThrow().getId());
+        probe.setName("other");
+        assertEquals(0, userRepository.count(Example.of(probe)));
+    }
+
+    @Test
+    void concurrentCreatesWithSameEmailHaveSingleWinner() throws Exception {
+        List<Boolean> results = race(i -> () -> {
+            try {
+                userService.create(new UserDto(0, "user" + i, "same@memory.test"));
+                return true;
+            } catch (UserAlreadyExistsException e) {
+                return false;
+            }
+        });
+
+        assertEquals(1, results.stream().filter(r -> r).count());
+        assertEquals(1, userRepository.findAll().stream()
+                .filter(u -> u.getEmail().equals("same@memory.test"))
+                .count());
+    }
+
+    @Test
+    void concurrentEmailChangesToSameAddressHaveSingleWinner() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            ids.add(userService.create(new UserDto(0, "user" + i, "before" + i + "@memory.test")).getId());
+        }
+
+        List<Boolean> results = race(i -> () -> {
+            try {
+                userService.update(ids.get(i), new UserDto(0, null, "taken@memory.test"));
+                return true;
+            } catch (UserAlreadyExistsException e) {
+                return false;
+            }
+        });
+
+        assertEquals(1, results.stream().filter(r -> r).count());
+        List<User> owners = userRepository.findAll().stream()
+                .filter(u -> u.getEmail().equals("taken@memory.test"))
+                .collect(Collectors.toList());
+        assertEquals(1, owners.size());
+        // Старый адрес победителя освобожден в индексе, адреса проигравших остались за ними
+        int winner = ids.indexOf(owners.get(0).getId());
+        userService.create(new UserDto(0, "new", "before" + winner + "@memory.test"));
+        assertEquals(THREADS, userRepository.findAll().stream()
+                .filter(u -> u.getEmail().startsWith("before"))
+                .count());
+    }
+
+    @Test
+    void concurrentSavesOfSameVersionHaveSingleWinner() throws Exception {
+        long id = userService.create(new UserDto(0, "user", "versioned@memory.test")).getId();
+        List<User> copies = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            copies.add(userRepository.findById(id).orElseThrow());
+        }
+
+        List<Boolean> results = race(i -> () -> {
+            User copy = copies.get(i);
+            copy.setName("name" + i);
+            try {
+                userRepository.save(copy);
+                return true;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                return false;
+            }
+        });
+
+        assertEquals(1, results.stream().filter(r -> r).count());
+        assertEquals(1L, userRepository.findById(id).orElseThrow().getVersion());
+    }
+
+    private <T> List<T> race(IntFunction<Callable<T>> call) throws Exception {
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Callable<T> task = call.apply(i);
+            futures.add(executor.submit(() -> {
+                go.await();
+                return task.call();
+            }));
+        }
+        go.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+}
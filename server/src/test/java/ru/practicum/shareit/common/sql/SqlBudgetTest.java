@@ -0,0 +1,153 @@
+package ru.practicum.shareit.common.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.requests.ItemRequestService;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Бюджет GET:/users/{id} обнулен, чтобы проверить отметку о превышении на настоящем запросе
+@SpringBootTest(properties = "shareit.sql.budgets.[GET\\:/users/{id}]=0")
+@AutoConfigureMockMvc
+class SqlBudgetTest {
+
+    // Больше бюджета по умолчанию: N+1 по предметам сразу выйдет за бюджет
+    private static final int ITEMS = 12;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private SqlBudgetProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private long ownerId;
+    private long bookerId;
+    private long requesterId;
+    private final List<Long> itemIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        ownerId = userService.create(new UserDto(0, "owner", "owner-" + suffix + "@budget.test")).getId();
+        bookerId = userService.create(new UserDto(0, "booker", "booker-" + suffix + "@budget.test")).getId();
+        requesterId = userService.create(new UserDto(0, "requester", "req-" + suffix + "@budget.test")).getId();
+        List<Long> requestIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requestIds.add(itemRequestService.create(requesterId,
+                    new ItemRequestDto(0, "Нужна дрель " + i, requesterId, null)).getId());
+        }
+
+        User booker = userRepository.getReferenceById(bookerId);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            Long requestId = i < requestIds.size() ? requestIds.get(i) : null;
+            long itemId = itemService.create(ownerId,
+                    new ItemDto(0, "Дрель " + i, "Аккумуляторная дрель", true, requestId, null)).getId();
+            itemIds.add(itemId);
+            Item item = itemRepository.getReferenceById(itemId);
+            bookingRepository.save(new Booking(0, now.minusDays(2), now.minusDays(1), item, booker,
+                    Status.APPROVED, null));
+            bookingRepository.save(new Booking(0, now.plusDays(1), now.plusDays(2), item, booker,
+                    Status.APPROVED, null));
+            commentRepository.save(new Comment(null, "Отличная дрель", item, booker, LocalDate.now()));
+        }
+    }
+
+    @Test
+    void keyEndpointsStayWithinBudget() throws Exception {
+        assertWithinBudget("GET:/items", ownerId, "/items?size=" + ITEMS);
+        assertWithinBudget("GET:/items/{itemId}", ownerId, "/items/" + itemIds.get(0));
+        assertWithinBudget("GET:/items/search", bookerId, "/items/search?text=дрель&size=" + ITEMS);
+        assertWithinBudget("GET:/bookings", bookerId, "/bookings?size=" + ITEMS);
+        assertWithinBudget("GET:/bookings/owner", ownerId, "/bookings/owner?size=" + ITEMS);
+        assertWithinBudget("GET:/requests", requesterId, "/requests");
+        assertWithinBudget("GET:/requests/all", ownerId, "/requests/all");
+    }
+
+    @Test
+    void overrunIsReportedWhenEnforced() throws Exception {
+        assertTrue(properties.isEnforce());
+        double overruns = overruns("GET:/users/{id}");
+
+        MvcResult result = mvc.perform(get("/users/" + ownerId).header("X-Sharer-User-Id", ownerId))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus());
+        assertTrue(Integer.parseInt(result.getResponse().getHeader("X-Sql-Count")) > 0);
+        assertEquals("0", result.getResponse().getHeader("X-Sql-Budget-Exceeded"));
+        assertTrue(result.getResponse().getContentAsString().contains("owner"));
+        assertEquals(overruns + 1, overruns("GET:/users/{id}"));
+    }
+
+    private double overruns(String endpoint) {
+        Counter counter = meterRegistry.find("shareit.sql.budget.overruns").tag("endpoint", endpoint).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private void assertWithinBudget(String endpoint, long userId, String uri) throws Exception {
+        MvcResult result = mvc.perform(get(uri).header("X-Sharer-User-Id", userId)).andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), endpoint);
+        assertNull(result.getResponse().getHeader("X-Sql-Budget-Exceeded"), endpoint);
+        String count = result.getResponse().getHeader("X-Sql-Count");
+        assertNotNull(count, endpoint);
+        int budget = properties.budgetFor(endpoint);
+        assertTrue(Integer.parseInt(count) <= budget,
+                endpoint + ": " + count + " SQL-запросов при бюджете " + budget);
+    }
+}
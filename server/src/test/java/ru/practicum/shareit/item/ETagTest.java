@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.requests.ItemRequestMatch;
+import ru.practicum.shareit.requests.ItemRequestMatchRepository;
+import ru.practicum.shareit.requests.ItemRequestRepository;
+import ru.practicum.shareit.requests.ItemRequestService;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest
+class ETagTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private ItemRequestMatchRepository matchRepository;
+
+    private String suffix;
+    private long ownerId;
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString();
+        ownerId = userService.create(new UserDto(0, "owner", "owner-" + suffix + "@etag.test")).getId();
+        userId = userService.create(new UserDto(0, "user", "user-" + suffix + "@etag.test")).getId();
+    }
+
+    @Test
+    void itemETagChangesWhenCommentAuthorIsRenamed() {
+        long itemId = createItem(ownerId, null);
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        bookingRepository.save(new Booking(0, start, start.plusDays(1), itemRepository.getReferenceById(itemId),
+                userRepository.getReferenceById(userId), Status.APPROVED, null));
+        String empty = itemService.getItemETag(itemId, userId);
+
+        itemService.createComment(itemId, userId, new CommentDto(null, "Отличная палатка", null, null));
+        String commented = itemService.getItemETag(itemId, userId);
+        assertNotEquals(empty, commented);
+
+        userService.update(userId, new UserDto(userId, "renamed", null));
+        assertNotEquals(commented, itemService.getItemETag(itemId, userId));
+    }
+
+    @Test
+    void requestETagChangesWhenAnsweredOrSuggestedItemChanges() {
+        long requestId = itemRequestService.create(userId,
+                new ItemRequestDto(0, "etagtest" + suffix.replace("-", ""), null, null)).getId();
+        String empty = itemRequestService.getETag(userId, requestId);
+
+        long answerId = createItem(ownerId, requestId);
+        String answered = itemRequestService.getETag(userId, requestId);
+        assertNotEquals(empty, answered);
+
+        itemService.update(answerId, ownerId, new ItemDto(0, null, null, false, null, null));
+        String answerChanged = itemRequestService.getETag(userId, requestId);
+        assertNotEquals(answered, answerChanged);
+
+        long suggestedId = createItem(userId, null);
+        matchRepository.save(new ItemRequestMatch(null, itemRequestRepository.getReferenceById(requestId),
+                itemRepository.getReferenceById(suggestedId), 0));
+        String suggested = itemRequestService.getETag(userId, requestId);
+        assertNotEquals(answerChanged, suggested);
+
+        itemService.update(suggestedId, userId, new ItemDto(0, null, null, false, null, null));
+        assertNotEquals(suggested, itemRequestService.getETag(userId, requestId));
+    }
+
+    private long createItem(long ownerId, Long requestId) {
+        return itemService.create(ownerId, new ItemDto(0, "Палатка", "Палатка на четверых", true, requestId, null))
+                .getId();
+    }
+}
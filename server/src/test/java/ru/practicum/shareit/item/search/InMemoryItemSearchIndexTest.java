@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.Item;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemoryItemSearchIndexTest {
+
+    private final InMemoryItemSearchIndex index = new InMemoryItemSearchIndex(null, 0.4, 1000);
+
+    @Test
+    void matchRequiresEverySignificantWord() {
+        index.index(item(1, "Дрель ударная", "Для ремонта в квартире"));
+        index.index(item(2, "Отвертка", "Для ремонта мебели"));
+        index.index(item(3, "Дрель аккумуляторная", "Легкая, на два аккумулятора"));
+
+        assertEquals(List.of(1L), index.match("Нужна дрель для ремонта", PageRequest.of(0, 10)));
+        assertEquals(List.of(1L, 3L), index.match("Ищу дрель, пожалуйста", PageRequest.of(0, 10)));
+        assertEquals(List.of(), index.match("Нужна на 2 для вас", PageRequest.of(0, 10)));
+    }
+
+    private static Item item(long id, String name, String description) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(true);
+        return item;
+    }
+}
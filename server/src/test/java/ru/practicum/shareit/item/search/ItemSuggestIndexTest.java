@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.Item;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSuggestIndexTest {
+
+    private final ItemSuggestIndex index = new ItemSuggestIndex(null);
+
+    @Test
+    void suggestsNamesStartingWithPrefixInKeyOrder() {
+        index.index(item(1, "Дрель ударная", true));
+        index.index(item(2, "дрель", true));
+        index.index(item(3, "Дрезина", true));
+        index.index(item(4, "Отвертка", true));
+        index.index(item(5, "Дрель ударная", true));
+        index.index(item(6, "Дрель скрытая", false));
+
+        assertEquals(List.of("Дрезина", "дрель", "Дрель ударная"), index.suggest("ДРЕ", 10));
+        assertEquals(List.of("дрель", "Дрель ударная"), index.suggest("дрель", 10));
+        assertEquals(List.of("Дрезина"), index.suggest("дре", 1));
+        assertEquals(List.of(), index.suggest("дрельу", 10));
+        assertEquals(List.of(), index.suggest("  ", 10));
+    }
+
+    @Test
+    void renamedAndHiddenItemsLeaveTheIndex() {
+        index.index(item(1, "Дрель", true));
+        index.index(item(2, "Дрезина", true));
+        index.index(item(1, "Пила", true));
+        index.index(item(2, "Дрезина", false));
+
+        assertEquals(List.of(), index.suggest("д", 10));
+        assertEquals(List.of("Пила"), index.suggest("п", 10));
+    }
+
+    // Маленький алфавит и короткие имена заставляют часто делить и сливать ребра
+    @Test
+    void matchesSortedMapModelUnderRandomUpdates() {
+        Random random = new Random(42);
+        Map<Long, String> model = new HashMap<>();
+        for (int step = 0; step < 20_000; step++) {
+            long id = random.nextInt(300);
+            String name = randomName(random);
+            boolean available = random.nextInt(5) > 0;
+            index.index(item(id, name, available));
+            if (available) {
+                model.put(id, name);
+            } else {
+                model.remove(id);
+            }
+            if (step % 50 == 0) {
+                for (int i = 0; i < 20; i++) {
+                    String prefix = randomName(random).substring(0, 1 + random.nextInt(3));
+                    int size = 1 + random.nextInt(20);
+                    assertEquals(expected(model, prefix, size), index.suggest(prefix, size), prefix);
+                }
+            }
+        }
+    }
+
+    private static List<String> expected(Map<Long, String> model, String text, int size) {
+        String prefix = text.toLowerCase(Locale.ROOT);
+        TreeMap<String, TreeMap<Long, String>> byKey = new TreeMap<>();
+        model.forEach((id, name) -> byKey.computeIfAbsent(name.toLowerCase(Locale.ROOT), k -> new TreeMap<>())
+                .put(id, name));
+        Set<String> result = new LinkedHashSet<>();
+        for (Map.Entry<String, TreeMap<Long, String>> entry : byKey.tailMap(prefix).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            for (String name : entry.getValue().values()) {
+                if (result.size() < size) {
+                    result.add(name);
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 3 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            name.append("abAB".charAt(random.nextInt(4)));
+        }
+        return name.toString();
+    }
+
+    private static Item item(long id, String name, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(available);
+        return item;
+    }
+}